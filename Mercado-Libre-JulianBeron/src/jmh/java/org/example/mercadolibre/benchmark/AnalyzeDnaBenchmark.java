@@ -0,0 +1,100 @@
+package org.example.mercadolibre.benchmark;
+
+import org.example.mercadolibre.Launcher;
+import org.example.mercadolibre.service.MutantService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+// Camino completo de POST /mutant (hash + búsqueda + detección + persistencia)
+// contra la H2 embebida, sin la capa HTTP
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AnalyzeDnaBenchmark {
+
+    @Param({"6", "100", "1000", "5000"})
+    private int size;
+
+    // Propiedades extra del contexto (p. ej. para comparar modos de persistencia).
+    // Sin caché de veredictos cada request llega al VerdictStore: JPA, JDBC directo u off-heap
+    // (con y sin el filtro de Bloom delante)
+    @Param({"", "mutant.cache.enabled=false,mutant.store=jpa", "mutant.cache.enabled=false,mutant.store=jdbc",
+            "mutant.cache.enabled=false,mutant.store=off-heap",
+            "mutant.cache.enabled=false,mutant.store=jpa,mutant.bloom.enabled=false"})
+    private String properties;
+
+    // Dígitos en base 4 del contador de analyzeNew: 64 bits, nunca se repite
+    private static final int COUNTER_DIGITS = 32;
+
+    private ConfigurableApplicationContext context;
+    private MutantService service;
+    private String[] repeated;
+    private char[][] uniqueRows;
+    private long counter;
+    // Último id de dna_records antes de medir (el ADN repetido)
+    private long lastSetupId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Launcher.class)
+                .web(WebApplicationType.NONE)
+                .run(ContextArgs.of(properties, "spring.jpa.show-sql=false", "logging.level.root=WARN"));
+        service = context.getBean(MutantService.class);
+        repeated = BenchmarkDna.human(size);
+        service.analyzeDna(repeated);
+        lastSetupId = maxRecordId();
+        uniqueRows = new char[Math.min(size, Math.ceilDiv(COUNTER_DIGITS, size))][];
+        for (int i = 0; i < uniqueRows.length; i++) {
+            uniqueRows[i] = repeated[i].toCharArray();
+        }
+    }
+
+    // Con N = 5000 cada ADN nuevo guarda ~6 MB en la H2 en memoria: entre iteraciones se
+    // borran los registros de analyzeNew para que el heap no se llene. No cambia lo medido,
+    // la búsqueda es por la clave única del hash
+    @TearDown(Level.Iteration)
+    public void trimStore() {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("DELETE FROM dna_records WHERE id > ?", lastSetupId);
+    }
+
+    private long maxRecordId() {
+        Long id = context.getBean(JdbcTemplate.class).queryForObject("SELECT MAX(id) FROM dna_records", Long.class);
+        return id != null ? id : 0;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // ADN ya registrado: solo hash + búsqueda
+    @Benchmark
+    public boolean analyzeRepeated() {
+        return service.analyzeDna(repeated);
+    }
+
+    // ADN nunca visto: las primeras celdas (fila por fila) codifican un contador en base 4.
+    // Con N = 6 una sola fila daría 4^6 = 4096 matrices y después serían repetidos; se usan
+    // las filas que hagan falta para los 32 dígitos
+    @Benchmark
+    public boolean analyzeNew() {
+        String[] dna = repeated.clone();
+        long value = ++counter;
+        int digits = 0;
+        for (int i = 0; i < uniqueRows.length; i++) {
+            char[] row = uniqueRows[i];
+            for (int j = 0; j < row.length && digits < COUNTER_DIGITS; j++, digits++) {
+                row[j] = "ACGT".charAt((int) (value & 3));
+                value >>>= 2;
+            }
+            dna[i] = new String(row);
+        }
+        return service.analyzeDna(dna);
+    }
+}
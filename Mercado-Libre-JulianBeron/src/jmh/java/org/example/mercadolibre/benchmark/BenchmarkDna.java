@@ -0,0 +1,57 @@
+package org.example.mercadolibre.benchmark;
+
+import org.example.mercadolibre.detector.MutantDetector;
+import org.example.mercadolibre.service.MutantService;
+
+import java.lang.reflect.Field;
+
+// Matrices de ADN deterministas para los benchmarks
+final class BenchmarkDna {
+
+    private static final String BASES = "ACGT";
+
+    private BenchmarkDna() {
+    }
+
+    // Peor caso humano: base(i, j) = BASES[(j + 2i) % 4] no repite bases vecinas en
+    // ninguna dirección, así que el detector recorre la matriz completa
+    static String[] human(int n) {
+        String[] dna = new String[n];
+        char[] row = new char[n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                row[j] = BASES.charAt((j + 2 * i) % 4);
+            }
+            dna[i] = new String(row);
+        }
+        return dna;
+    }
+
+    // Mutante con salida temprana: una corrida de 5 'A' al comienzo de la primera fila
+    static String[] mutant(int n) {
+        String[] dna = human(n);
+        char[] first = dna[0].toCharArray();
+        for (int j = 0; j < Math.min(5, n); j++) {
+            first[j] = 'A';
+        }
+        dna[0] = new String(first);
+        return dna;
+    }
+
+    static String[] of(String kind, int n) {
+        return "mutant".equals(kind) ? mutant(n) : human(n);
+    }
+
+    // MutantService sin contexto Spring, con el detector indicado
+    static MutantService serviceWith(MutantDetector detector) {
+        MutantService service = new MutantService();
+        try {
+            Field field = MutantService.class.getDeclaredField("mutantDetector");
+            field.setAccessible(true);
+            field.set(service, detector);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No se pudo configurar el detector", e);
+        }
+        return service;
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.mercadolibre.benchmark;
+
+import org.example.mercadolibre.Launcher;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// POST /mutant por HTTP con muchos clientes concurrentes (más que los 200 hilos de
+// Tomcat): servlet con hilos de plataforma, servlet con hilos virtuales y el perfil
+// reactive (WebFlux + R2DBC). SampleTime da la latencia por percentiles (p99, p99.9)
+// y Throughput los requests por segundo; con -prof gc, la asignación por request.
+// Más clientes (conexiones keep-alive) con -t, p. ej. -t 2000.
+// -Djdk.tracePinnedThreads=short imprime cada hilo virtual fijado a su portador
+// (p. ej. por JDBC dentro de un bloque synchronized)
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(400)
+@Fork(value = 1, jvmArgsAppend = "-Djdk.tracePinnedThreads=short")
+public class ConcurrencyBenchmark {
+
+    @Param({"platform", "virtual", "reactive"})
+    private String stack;
+
+    // Propiedades extra del contexto (p. ej. mutant.write-behind.enabled=true)
+    @Param({""})
+    private String properties;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private URI mutantUri;
+    private final AtomicLong counter = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Launcher.class)
+                .profiles("reactive".equals(stack) ? new String[]{"reactive"} : new String[0])
+                .run(ContextArgs.of(properties, "server.port=0", "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN", "spring.threads.virtual.enabled=" + "virtual".equals(stack)));
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        mutantUri = URI.create("http://localhost:" + port + "/mutant");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // ADN nuevo en cada request: hash + búsqueda + detección + INSERT
+    @Benchmark
+    public int analyzeNew() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(mutantUri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(uniqueDnaJson(counter.incrementAndGet())))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    // Matriz de 16x16 cuya primera fila codifica value en base 4
+    private static String uniqueDnaJson(long value) {
+        String[] dna = BenchmarkDna.human(16);
+        char[] first = dna[0].toCharArray();
+        for (int j = 0; j < first.length; j++) {
+            first[j] = "ACGT".charAt((int) (value & 3));
+            value >>>= 2;
+        }
+        dna[0] = new String(first);
+        return "{\"dna\":[\"" + String.join("\",\"", dna) + "\"]}";
+    }
+}
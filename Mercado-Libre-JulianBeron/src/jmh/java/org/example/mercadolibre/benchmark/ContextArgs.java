@@ -0,0 +1,27 @@
+package org.example.mercadolibre.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Propiedades del contexto de un benchmark como argumentos de línea de comandos.
+// SpringApplicationBuilder.properties() solo fija valores por defecto, que
+// application.properties pisa: así los @Param sí cambian la configuración
+final class ContextArgs {
+
+    private ContextArgs() {
+    }
+
+    // extra: lista "clave=valor,clave=valor" (vacía = nada)
+    static String[] of(String extra, String... properties) {
+        List<String> args = new ArrayList<>();
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+        if (!extra.isEmpty()) {
+            for (String property : extra.split(",")) {
+                args.add("--" + property);
+            }
+        }
+        return args.toArray(new String[0]);
+    }
+}
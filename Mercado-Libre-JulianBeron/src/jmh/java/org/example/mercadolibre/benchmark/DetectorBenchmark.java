@@ -0,0 +1,58 @@
+package org.example.mercadolibre.benchmark;
+
+import org.example.mercadolibre.config.DetectorConfig;
+import org.example.mercadolibre.detector.MutantDetector;
+import org.example.mercadolibre.service.MutantService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// MutantService.isMutant (validación + copia + detección) para cada estrategia,
+// con mutantes que cortan temprano y humanos en el peor caso. configured arma el
+// detector como DetectorConfig en producción: desde N = 2000 el mismo kernel por
+// bandas en paralelo
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DetectorBenchmark {
+
+    @Param({"6", "100", "1000", "5000"})
+    private int size;
+
+    @Param({"mutant", "human"})
+    private String kind;
+
+    @Param({"byte-matrix", "run-length", "bitboard", "auto"})
+    private String detector;
+
+    @Param({"sequential", "configured"})
+    private String wiring;
+
+    // Valor por defecto de mutant.detector.parallel-threshold
+    private static final int PARALLEL_THRESHOLD = 2000;
+
+    private String[] dna;
+    private MutantService service;
+    private MutantDetector mutantDetector;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dna = BenchmarkDna.of(kind, size);
+        mutantDetector = "configured".equals(wiring)
+                ? DetectorConfig.configuredDetector(detector, PARALLEL_THRESHOLD, Runtime.getRuntime().availableProcessors())
+                : DetectorConfig.sequentialDetector(detector);
+        service = BenchmarkDna.serviceWith(mutantDetector);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (mutantDetector instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    @Benchmark
+    public boolean isMutant() {
+        return service.isMutant(dna);
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.mercadolibre.benchmark;
+
+import org.example.mercadolibre.dna.DnaFingerprinter;
+import org.example.mercadolibre.dna.DnaMatrix;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+// Hash del ADN que identifica cada registro (DnaFingerprinter), contra el hash
+// anterior que concatenaba las filas y creaba un MessageDigest por llamada.
+// prepare (validar + codificar + hashear en una pasada) se compara con la
+// validación por regex seguida de fromRows y fingerprint, tres pasadas en total
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class HashBenchmark {
+
+    @Param({"6", "100", "1000", "5000"})
+    private int size;
+
+    @Param({DnaFingerprinter.SHA_256, DnaFingerprinter.MURMUR3_128})
+    private String algorithm;
+
+    private String[] dna;
+    private DnaFingerprinter fingerprinter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dna = BenchmarkDna.human(size);
+        fingerprinter = new DnaFingerprinter(algorithm);
+    }
+
+    @Benchmark
+    public Object fingerprint() {
+        return fingerprinter.fingerprint(dna);
+    }
+
+    @Benchmark
+    public Object prepare() {
+        return fingerprinter.prepare(dna);
+    }
+
+    @Benchmark
+    public Object regexThenFingerprint(Blackhole blackhole) {
+        for (String row : dna) {
+            if (row.length() != dna.length || !row.matches("[ATCG]+")) {
+                throw new IllegalArgumentException("ADN inválido");
+            }
+        }
+        blackhole.consume(DnaMatrix.fromRows(dna));
+        return fingerprinter.fingerprint(dna);
+    }
+
+    @Benchmark
+    public Object joinAndDigest() throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        return digest.digest(String.join("", dna).getBytes(StandardCharsets.UTF_8));
+    }
+}
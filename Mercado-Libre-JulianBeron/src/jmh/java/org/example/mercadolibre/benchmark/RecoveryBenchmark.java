@@ -0,0 +1,94 @@
+package org.example.mercadolibre.benchmark;
+
+import org.example.mercadolibre.dna.DnaFingerprinter;
+import org.example.mercadolibre.dna.DnaHash;
+import org.example.mercadolibre.entity.Dna;
+import org.example.mercadolibre.repository.OffHeapVerdictIndex;
+import org.example.mercadolibre.repository.VerdictLog;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Arranque con mutant.store.log.enabled: VerdictLog.recover recorre todos los segmentos
+// y reconstruye el índice off-heap desde el tamaño inicial por defecto (como
+// OffHeapVerdictStore). Los segmentos se escriben una vez por trial; después de la
+// primera lectura están en el page cache, así que se mide el recorrido y la carga del
+// índice, no el disco
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class RecoveryBenchmark {
+
+    @Param({"1000000", "10000000"})
+    private int records;
+
+    @Param({DnaFingerprinter.SHA_256, DnaFingerprinter.MURMUR3_128})
+    private String algorithm;
+
+    // Valores por defecto de mutant.store.log.segment-records y mutant.store.off-heap.*
+    private static final int SEGMENT_RECORDS = 1_000_000;
+    private static final int INITIAL_ENTRIES = 65536;
+    private static final double MAX_LOAD_FACTOR = 0.7;
+
+    private Path dir;
+    private int keyBytes;
+    private VerdictLog verdictLog;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("verdict-log-bench");
+        keyBytes = new DnaFingerprinter(algorithm).getHashLength();
+        VerdictLog writer = newLog();
+        writer.recover(new OffHeapVerdictIndex(keyBytes, INITIAL_ENTRIES, MAX_LOAD_FACTOR));
+        byte[] sequence = new byte[9];
+        for (int i = 0; i < records; i++) {
+            writer.append(new Dna(hash(i), i % 3 == 0, 6, sequence));
+        }
+        writer.close();
+    }
+
+    @Benchmark
+    public VerdictLog.Recovery recover() {
+        verdictLog = newLog();
+        return verdictLog.recover(new OffHeapVerdictIndex(keyBytes, INITIAL_ENTRIES, MAX_LOAD_FACTOR));
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeLog() {
+        verdictLog.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private VerdictLog newLog() {
+        return new VerdictLog(dir, keyBytes, SEGMENT_RECORDS, Duration.ZERO, 0.2);
+    }
+
+    // Hash distinto por registro, con bytes bien repartidos como los de un digest real
+    private DnaHash hash(int key) {
+        ByteBuffer bytes = ByteBuffer.allocate(keyBytes);
+        long mixed = (key + 1) * 0x9E3779B97F4A7C15L;
+        while (bytes.hasRemaining()) {
+            mixed ^= mixed >>> 29;
+            mixed *= 0xBF58476D1CE4E5B9L;
+            bytes.putLong(mixed);
+        }
+        return new DnaHash(bytes.array());
+    }
+}
@@ -0,0 +1,255 @@
+package org.example.mercadolibre.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import org.example.mercadolibre.dna.DnaHash;
+import org.example.mercadolibre.repository.VerdictStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Filtro de Bloom con los hashes guardados: si dice que un ADN no está, seguro no
+// está y MutantService va directo a detectar e insertar, sin consultar la base. Si
+// dice que puede estar, se consulta antes de analizar (un ADN repetido no se vuelve a
+// detectar). Se carga desde el VerdictStore al arrancar y se actualiza con cada
+// registro nuevo; los bits se prenden con getAndBitwiseOr, sin locks.
+// Un falso negativo (un INSERT hecho por fuera del servicio, o uno concurrente con la
+// reconstrucción) no rompe nada: el INSERT condicional resuelve el duplicado.
+// Cuando las inserciones pasan de las previstas (la tasa de falsos positivos ya supera
+// la configurada) se reconstruye en un hilo aparte, con el doble de capacidad
+@Component
+@ConditionalOnProperty(name = "mutant.bloom.enabled", havingValue = "true", matchIfMissing = true)
+public class KnownHashFilter implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(KnownHashFilter.class);
+
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle KEY_LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private static final double LN2 = Math.log(2);
+
+    private final VerdictStore verdictStore;
+    private final long minExpectedInsertions;
+    private final double targetFpp;
+
+    private volatile Bits bits;
+    // Filtro en construcción: mientras se carga, los put van a los dos
+    private volatile Bits next;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private final LongAdder negatives = new LongAdder();
+    private final LongAdder positives = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+
+    // Arreglo de bits con k posiciones por clave (doble hashing sobre los primeros
+    // 16 bytes del hash, que ya están bien distribuidos)
+    private static final class Bits {
+        final long[] words;
+        final long bitCount;
+        final int hashes;
+        final long expectedInsertions;
+        final AtomicLong insertions = new AtomicLong();
+        final LongAdder setBits = new LongAdder();
+
+        Bits(long expectedInsertions, double fpp) {
+            long wanted = (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (LN2 * LN2));
+            int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (wanted + 63) / 64));
+            this.words = new long[wordCount];
+            this.bitCount = (long) wordCount * 64;
+            this.hashes = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * LN2));
+            this.expectedInsertions = expectedInsertions;
+        }
+
+        boolean mightContain(long h1, long h2) {
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                if (((long) WORDS.getAcquire(words, (int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Devuelve true si el filtro pasó su capacidad prevista
+        boolean put(long h1, long h2) {
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                long mask = 1L << bit;
+                long old = (long) WORDS.getAndBitwiseOr(words, (int) (bit >>> 6), mask);
+                if ((old & mask) == 0) {
+                    setBits.increment();
+                }
+            }
+            return insertions.incrementAndGet() > expectedInsertions;
+        }
+
+        double fill() {
+            return (double) setBits.sum() / bitCount;
+        }
+
+        // Probabilidad de falso positivo con la ocupación actual: fill^k
+        double expectedFpp() {
+            return Math.pow(fill(), hashes);
+        }
+    }
+
+    @Autowired
+    public KnownHashFilter(VerdictStore verdictStore,
+                           @Value("${mutant.bloom.expected-insertions:1000000}") long expectedInsertions,
+                           @Value("${mutant.bloom.fpp:0.01}") double fpp) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("mutant.bloom.expected-insertions debe ser mayor a 0");
+        }
+        if (fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("mutant.bloom.fpp debe estar entre 0 y 1");
+        }
+        this.verdictStore = verdictStore;
+        this.minExpectedInsertions = expectedInsertions;
+        this.targetFpp = fpp;
+        this.bits = new Bits(expectedInsertions, fpp);
+    }
+
+    // Carga los hashes que ya están guardados (al arrancar)
+    @PostConstruct
+    public void load() {
+        reload();
+    }
+
+    // false: el hash seguro no está guardado. true: puede estar (o es un falso positivo)
+    public boolean mightContain(DnaHash dnaHash) {
+        byte[] key = dnaHash.toBytes();
+        boolean maybe = bits.mightContain(h1(key), h2(key));
+        (maybe ? positives : negatives).increment();
+        return maybe;
+    }
+
+    // Registra un hash que se acaba de guardar (o que se va a guardar)
+    public void put(DnaHash dnaHash) {
+        byte[] key = dnaHash.toBytes();
+        long h1 = h1(key);
+        long h2 = h2(key);
+        boolean saturated = bits.put(h1, h2);
+        Bits building = next;
+        if (building != null) {
+            building.put(h1, h2);
+        } else if (saturated) {
+            rebuildAsync();
+        }
+    }
+
+    // mightContain dijo que sí y el VerdictStore no lo tenía
+    public void recordFalsePositives(long count) {
+        falsePositives.add(count);
+    }
+
+    // Arma un filtro nuevo, dimensionado para el doble de los registros actuales, con
+    // todos los hashes del VerdictStore, y lo publica. Los put que llegan mientras se
+    // carga van también al nuevo
+    public void rebuild() {
+        reload();
+        rebuilds.increment();
+    }
+
+    private void reload() {
+        long stored = verdictStore.countByIsMutant(true) + verdictStore.countByIsMutant(false);
+        Bits fresh = new Bits(Math.max(minExpectedInsertions, 2 * stored), targetFpp);
+        next = fresh;
+        try {
+            verdictStore.forEachHash(dnaHash -> {
+                byte[] key = dnaHash.toBytes();
+                fresh.put(h1(key), h2(key));
+            });
+            bits = fresh;
+        } finally {
+            next = null;
+        }
+        log.info("Filtro de hashes conocidos: {} hashes, {} bits, {} funciones de hash",
+                fresh.insertions.get(), fresh.bitCount, fresh.hashes);
+    }
+
+    // Reconstrucción en segundo plano; si ya hay una en curso no hace nada
+    public void rebuildAsync() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        Thread.ofPlatform().daemon().name("known-hash-filter-rebuild").start(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.error("No se pudo reconstruir el filtro de hashes conocidos", e);
+            } finally {
+                rebuilding.set(false);
+            }
+        });
+    }
+
+    public double getFill() {
+        return bits.fill();
+    }
+
+    public double getExpectedFpp() {
+        return bits.expectedFpp();
+    }
+
+    // Falsos positivos sobre los hashes que no estaban: FP / (FP + negativos)
+    public double getObservedFpp() {
+        long fp = falsePositives.sum();
+        long total = fp + negatives.sum();
+        return total == 0 ? 0 : (double) fp / total;
+    }
+
+    public long getInsertions() {
+        return bits.insertions.get();
+    }
+
+    public long getExpectedInsertions() {
+        return bits.expectedInsertions;
+    }
+
+    public long getRebuilds() {
+        return rebuilds.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("mutant.bloom.negatives", negatives, LongAdder::sum).register(registry);
+        FunctionCounter.builder("mutant.bloom.positives", positives, LongAdder::sum).register(registry);
+        FunctionCounter.builder("mutant.bloom.false-positives", falsePositives, LongAdder::sum).register(registry);
+        FunctionCounter.builder("mutant.bloom.rebuilds", rebuilds, LongAdder::sum).register(registry);
+        Gauge.builder("mutant.bloom.fill", this, KnownHashFilter::getFill).register(registry);
+        Gauge.builder("mutant.bloom.expected-fpp", this, KnownHashFilter::getExpectedFpp).register(registry);
+        Gauge.builder("mutant.bloom.observed-fpp", this, KnownHashFilter::getObservedFpp).register(registry);
+        Gauge.builder("mutant.bloom.insertions", this, KnownHashFilter::getInsertions).register(registry);
+        Gauge.builder("mutant.bloom.expected-insertions", this, KnownHashFilter::getExpectedInsertions)
+                .register(registry);
+        Gauge.builder("mutant.bloom.bytes", this, filter -> (double) filter.bits.words.length * Long.BYTES)
+                .baseUnit("bytes").register(registry);
+    }
+
+    // Los hashes de DnaFingerprinter tienen 16 o 32 bytes; uno más corto (no debería
+    // haber) se reparte igual a partir de su hashCode
+    private static long h1(byte[] key) {
+        return key.length >= 2 * Long.BYTES ? (long) KEY_LONGS.get(key, 0) : Arrays.hashCode(key) * 0x9E3779B97F4A7C15L;
+    }
+
+    // Impar: el paso nunca es 0
+    private static long h2(byte[] key) {
+        long h2 = key.length >= 2 * Long.BYTES ? (long) KEY_LONGS.get(key, Long.BYTES) : Long.rotateLeft(h1(key), 32);
+        return h2 | 1;
+    }
+}
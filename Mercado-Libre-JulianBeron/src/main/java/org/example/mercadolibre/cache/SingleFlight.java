@@ -0,0 +1,87 @@
+package org.example.mercadolibre.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.example.mercadolibre.dna.DnaHash;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Agrupa análisis concurrentes del mismo ADN (single-flight): el primer request
+// con un hash hace el trabajo y los que llegan mientras tanto esperan su mismo
+// CompletableFuture. La entrada se quita apenas se conoce el resultado, así que
+// no es una caché: solo evita repetir trabajo que ya está en curso
+@Component
+@ConditionalOnProperty(name = "mutant.single-flight.enabled", havingValue = "true", matchIfMissing = true)
+public class SingleFlight implements MeterBinder {
+
+    private final Map<DnaHash, CompletableFuture<Boolean>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    // Ejecuta analysis, o espera el resultado si ya hay uno en curso para el hash.
+    // Las excepciones del análisis se propagan tal cual a todos los que esperaban
+    public boolean execute(DnaHash dnaHash, Supplier<Boolean> analysis) {
+        CompletableFuture<Boolean> flight = new CompletableFuture<>();
+        CompletableFuture<Boolean> running = inFlight.putIfAbsent(dnaHash, flight);
+        if (running != null) {
+            coalesced.increment();
+            return await(running);
+        }
+
+        executions.increment();
+        try {
+            boolean verdict = analysis.get();
+            flight.complete(verdict);
+            return verdict;
+        } catch (Throwable e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(dnaHash, flight);
+        }
+    }
+
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    public long getExecutions() {
+        return executions.sum();
+    }
+
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("mutant.single-flight.in-flight", this, SingleFlight::getInFlight).register(registry);
+        FunctionCounter.builder("mutant.single-flight.executions", executions, LongAdder::sum).register(registry);
+        FunctionCounter.builder("mutant.single-flight.coalesced", coalesced, LongAdder::sum).register(registry);
+    }
+
+    private static boolean await(CompletableFuture<Boolean> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            // Misma excepción que recibió el primero (p. ej. ADN inválido -> 400)
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
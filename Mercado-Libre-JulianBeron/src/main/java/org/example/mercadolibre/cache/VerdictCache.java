@@ -0,0 +1,142 @@
+package org.example.mercadolibre.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.example.mercadolibre.dna.DnaHash;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// Caché en memoria de veredictos por hash de ADN, delante de DnaRepository.
+// Acotada por cantidad de entradas (se descartan las más antiguas, FIFO) y por TTL,
+// para que una avalancha de ADN único no haga crecer la memoria sin límite
+@Component
+@ConditionalOnProperty(name = "mutant.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class VerdictCache implements MeterBinder {
+
+    private record Entry(boolean mutant, long expiresAt) {
+    }
+
+    // Orden de inserción; guarda la entrada para no borrar una más nueva con la misma clave
+    private record Node(DnaHash hash, Entry entry) {
+    }
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+
+    private final Map<DnaHash, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Node> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    @Autowired
+    public VerdictCache(@Value("${mutant.cache.max-entries:100000}") int maxEntries,
+                        @Value("${mutant.cache.ttl:10m}") Duration ttl) {
+        this(maxEntries, ttl, System::nanoTime);
+    }
+
+    public VerdictCache(int maxEntries, Duration ttl, LongSupplier nanoClock) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("mutant.cache.max-entries debe ser mayor a 0");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    // Veredicto cacheado, o null si no está (o venció)
+    public Boolean get(DnaHash dnaHash) {
+        Entry entry = entries.get(dnaHash);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (nanoClock.getAsLong() - entry.expiresAt() >= 0) {
+            if (entries.remove(dnaHash, entry)) {
+                expirations.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.mutant();
+    }
+
+    public void put(DnaHash dnaHash, boolean mutant) {
+        Entry entry = new Entry(mutant, nanoClock.getAsLong() + ttlNanos);
+        entries.put(dnaHash, entry);
+        insertionOrder.add(new Node(dnaHash, entry));
+        if (queued.incrementAndGet() > maxEntries) {
+            evictOldest();
+        }
+    }
+
+    // Vacía también la cola: si no, sus nodos mantendrían vivos los hashes hasta que
+    // los empujen inserciones nuevas
+    public void clear() {
+        entries.clear();
+        insertionOrder.clear();
+        queued.set(0);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public long getExpirations() {
+        return expirations.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("mutant.cache.hits", this, VerdictCache::getHits).register(registry);
+        FunctionCounter.builder("mutant.cache.misses", this, VerdictCache::getMisses).register(registry);
+        FunctionCounter.builder("mutant.cache.evictions", this, VerdictCache::getEvictions).register(registry);
+        FunctionCounter.builder("mutant.cache.expirations", this, VerdictCache::getExpirations).register(registry);
+        Gauge.builder("mutant.cache.size", this, VerdictCache::size).register(registry);
+        Gauge.builder("mutant.cache.max-entries", () -> maxEntries).register(registry);
+    }
+
+    // La cola tiene a lo sumo maxEntries nodos: cada nodo sobrante saca su entrada
+    // del mapa solo si sigue siendo la misma (si fue reemplazada o venció, se ignora)
+    private void evictOldest() {
+        while (queued.get() > maxEntries) {
+            Node oldest = insertionOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            queued.decrementAndGet();
+            if (entries.remove(oldest.hash(), oldest.entry())) {
+                evictions.increment();
+            }
+        }
+    }
+}
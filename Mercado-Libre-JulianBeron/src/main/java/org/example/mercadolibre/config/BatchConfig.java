@@ -0,0 +1,22 @@
+package org.example.mercadolibre.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+
+// Pool propio para POST /mutant/batch, así un batch grande no ocupa el pool común
+// ni más hilos que mutant.batch.parallelism
+@Configuration
+public class BatchConfig {
+
+    @Value("${mutant.batch.parallelism:0}")
+    private int parallelism;
+
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool batchPool() {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(threads);
+    }
+}
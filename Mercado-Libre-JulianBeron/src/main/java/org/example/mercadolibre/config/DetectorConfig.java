@@ -0,0 +1,74 @@
+package org.example.mercadolibre.config;
+
+import org.example.mercadolibre.detector.BandDetector;
+import org.example.mercadolibre.detector.BitboardDetector;
+import org.example.mercadolibre.detector.ByteMatrixDetector;
+import org.example.mercadolibre.detector.MutantDetector;
+import org.example.mercadolibre.detector.ParallelDetector;
+import org.example.mercadolibre.detector.RunLengthDetector;
+import org.example.mercadolibre.detector.VectorKernels;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Configuración del detector de mutantes que usa MutantService (propiedad mutant.detector)
+@Configuration
+public class DetectorConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(DetectorConfig.class);
+
+    @Value("${mutant.detector:auto}")
+    private String detector;
+
+    // Tamaño N desde el cual se usa el recorrido paralelo por bandas (0 = desactivado)
+    @Value("${mutant.detector.parallel-threshold:2000}")
+    private int parallelThreshold;
+
+    @Value("${mutant.detector.parallelism:0}")
+    private int parallelism;
+
+    @Bean
+    public MutantDetector mutantDetector() {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return configuredDetector(detector, parallelThreshold, threads);
+    }
+
+    // Detector tal como lo usa MutantService: el kernel elegido y, desde el umbral, ese
+    // mismo kernel recorriendo bandas en paralelo. byte-matrix no recorre bandas y queda
+    // secuencial. También lo usa DetectorBenchmark para medir el camino de producción
+    public static MutantDetector configuredDetector(String detector, int parallelThreshold, int threads) {
+        MutantDetector sequential = sequentialDetector(detector);
+        if (parallelThreshold <= 0 || !(sequential instanceof BandDetector kernel)) {
+            return sequential;
+        }
+        // Bandas de al menos 64 filas, unas 4 por hilo en el tamaño umbral
+        int bandRows = Math.max(64, parallelThreshold / (threads * 4));
+        return new ParallelDetector(kernel, parallelThreshold, threads, bandRows);
+    }
+
+    // También lo usan los benchmarks JMH para comparar estrategias
+    public static MutantDetector sequentialDetector(String detector) {
+        return switch (detector) {
+            case "byte-matrix" -> new ByteMatrixDetector();
+            case "run-length" -> new RunLengthDetector();
+            case "bitboard" -> new BitboardDetector();
+            case "auto" -> autoDetector();
+            default -> throw new IllegalStateException("Detector desconocido: " + detector);
+        };
+    }
+
+    // Usa el kernel SIMD si está disponible; si no, el recorrido escalar de una pasada
+    private static MutantDetector autoDetector() {
+        return VectorKernels.load()
+                .map(kernel -> {
+                    log.info("Detector de mutantes: kernel SIMD (jdk.incubator.vector)");
+                    return kernel;
+                })
+                .orElseGet(() -> {
+                    log.info("Detector de mutantes: run-length (jdk.incubator.vector no habilitado)");
+                    return new RunLengthDetector();
+                });
+    }
+}
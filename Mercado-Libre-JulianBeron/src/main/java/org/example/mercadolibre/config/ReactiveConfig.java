@@ -0,0 +1,37 @@
+package org.example.mercadolibre.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import javax.sql.DataSource;
+
+// Perfil reactive: la validación, el hash y la detección (trabajo de CPU) corren en un
+// scheduler paralelo acotado, nunca en el event loop de Netty
+@Configuration
+@Profile("reactive")
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReactiveConfig {
+
+    @Value("${mutant.reactive.parallelism:0}")
+    private int parallelism;
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler detectionScheduler() {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return Schedulers.newParallel("mutant-detect", threads);
+    }
+
+    // Boot no configura el DataSource cuando hay un ConnectionFactory de R2DBC. Se crea
+    // igual con spring.datasource.*: JPA sigue creando el esquema y StatsCounters
+    // carga los totales al arrancar, sobre la misma base que usa R2DBC
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().build();
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.mercadolibre.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.Profiles;
+import org.springframework.util.ClassUtils;
+
+import java.util.Set;
+
+// Corta el arranque del perfil reactive en las combinaciones que no funcionan, antes de
+// crear el contexto:
+// - Sin WebFlux/R2DBC en el classpath (solo se empaquetan con -Preactive)
+// - Con mutant.store=off-heap o el log de veredictos: ReactiveMutantService persiste por
+//   R2DBC en dna_records, mientras /stats y el filtro de hashes leerían del VerdictStore,
+//   y los datos quedarían partidos en dos
+public class ReactiveProfileCheck implements EnvironmentPostProcessor, Ordered {
+
+    static final String[] REQUIRED_CLASSES = {
+            "org.springframework.web.reactive.DispatcherHandler",
+            "io.r2dbc.spi.ConnectionFactory",
+            "io.r2dbc.h2.H2ConnectionFactory"
+    };
+
+    // VerdictStore que guardan en dna_records, la misma tabla que usa R2DBC
+    private static final Set<String> SUPPORTED_STORES = Set.of("jpa", "jdbc");
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (!environment.acceptsProfiles(Profiles.of("reactive"))) {
+            return;
+        }
+        ClassLoader classLoader = application.getClassLoader();
+        for (String className : REQUIRED_CLASSES) {
+            if (!ClassUtils.isPresent(className, classLoader)) {
+                throw new IllegalStateException("El perfil reactive necesita WebFlux y R2DBC en el classpath (falta "
+                        + className + "); compilar con -Preactive, p. ej.: gradlew bootJar -Preactive");
+            }
+        }
+        String store = environment.getProperty("mutant.store", "jpa");
+        if (!SUPPORTED_STORES.contains(store)) {
+            throw new IllegalStateException("El perfil reactive no soporta mutant.store=" + store
+                    + ": persiste por R2DBC en dna_records; usar jpa o jdbc");
+        }
+        if (environment.getProperty("mutant.store.log.enabled", Boolean.class, false)) {
+            throw new IllegalStateException("El perfil reactive no soporta mutant.store.log.enabled=true");
+        }
+    }
+
+    // Después de cargar application-{perfil}.properties
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+}
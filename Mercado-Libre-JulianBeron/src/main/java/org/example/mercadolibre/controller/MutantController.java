@@ -1,29 +1,92 @@
 package org.example.mercadolibre.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import org.example.mercadolibre.dna.DnaCodec;
+import org.example.mercadolibre.dna.PreparedDna;
+import org.example.mercadolibre.dto.DnaResult;
 import org.example.mercadolibre.dto.DnaRequest;
 import org.example.mercadolibre.dto.StatsResponse;
 import org.example.mercadolibre.service.MutantService;
+import org.example.mercadolibre.service.StreamingAnalysis;
+import org.example.mercadolibre.stats.StatsRollups;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/")
 @Tag(name = "Mutant Detection API", description = "API para detectar mutantes mediante análisis de ADN")
 public class MutantController {
 
+    private static final Logger log = LoggerFactory.getLogger(MutantController.class);
+
+    // Formato binario de /mutant: N (int big-endian) y las bases empaquetadas (DnaCodec)
+    private static final int BINARY_HEADER_BYTES = 4;
+
+    // Resultados escritos entre cada flush de /mutant/stream
+    private static final int STREAM_FLUSH_EVERY = 64;
+
     @Autowired
     private MutantService mutantService;
 
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // GET /stats por rango (opcional, mutant.stats.rollups.enabled)
+    @Autowired(required = false)
+    private StatsRollups statsRollups;
+
+    // Cantidad máxima de ADN por llamada a /mutant/batch
+    @Value("${mutant.batch.max-size:1000}")
+    private int maxBatchSize;
+
+    // Bases (caracteres de todas las filas) por llamada a /mutant/batch: acota la memoria
+    // aunque cada ADN sea grande
+    @Value("${mutant.batch.max-cells:25000000}")
+    private long maxBatchCells;
+
+    // N máximo del formato binario de /mutant y de /mutant/rows: acota el cuerpo que se
+    // lee y la matriz
+    @Value("${mutant.binary.max-size:5000}")
+    private int maxBinarySize;
+
     @GetMapping("/")
     @Operation(summary = "Página de inicio", description = "Redirige a la documentación de la API")
     public ResponseEntity<String> home() {
@@ -53,6 +116,9 @@ public class MutantController {
                 "<div class='endpoints'>" +
                 "<h3>Endpoints disponibles:</h3>" +
                 "<div class='endpoint'><span class='method'>POST</span> /mutant - Verificar si un ADN es mutante</div>" +
+                "<div class='endpoint'><span class='method'>POST</span> /mutant/batch - Verificar varios ADN en una sola llamada</div>" +
+                "<div class='endpoint'><span class='method'>POST</span> /mutant/rows - Verificar un ADN grande leyéndolo fila por fila</div>" +
+                "<div class='endpoint'><span class='method'>POST</span> /mutant/stream - Verificar ADN en streaming (NDJSON)</div>" +
                 "<div class='endpoint'><span class='method'>GET</span> /stats - Obtener estadísticas</div>" +
                 "</div>" +
                 "</div>" +
@@ -88,33 +154,362 @@ public class MutantController {
                     )
             ) DnaRequest request) {
         try {
-            boolean isMutant = mutantService.analyzeDna(request.getDna());
-
-            if (isMutant) {
-                return ResponseEntity.ok().body("{\"message\": \"Es un mutante\"}");
-            } else {
-                return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                        .body("{\"message\": \"No es un mutante\"}");
+            DnaResult result = mutantService.analyze(request.getDna());
+            if (result.getError() != null) {
+                return ResponseEntity.badRequest()
+                        .body("{\"error\": \"" + result.getError() + "\"}");
             }
-        } catch (IllegalArgumentException e) {
+            return verdictResponse(result.getMutant());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("{\"error\": \"Error interno del servidor\"}");
+        }
+    }
+
+    @PostMapping(value = "/mutant", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(
+            summary = "Detectar si un ADN es mutante (formato binario)",
+            description = "Cuerpo binario: N como entero de 4 bytes big-endian y luego las N x N bases fila por fila, " +
+                    "4 por byte empezando por los bits bajos (A=0, C=1, G=2, T=3). Mismas respuestas que en JSON"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Es un mutante"),
+            @ApiResponse(responseCode = "403", description = "No es un mutante"),
+            @ApiResponse(responseCode = "400", description = "Cuerpo binario inválido"),
+            @ApiResponse(responseCode = "413", description = "N supera mutant.binary.max-size")
+    })
+    public ResponseEntity<?> isMutantBinary(HttpServletRequest request) throws IOException {
+        // El límite se controla con Content-Length antes de leer, y si no viene, con el N
+        // del encabezado: nunca se lee más que la matriz más grande admitida
+        long maxBody = BINARY_HEADER_BYTES + (long) DnaCodec.packedLength(maxBinarySize);
+        if (request.getContentLengthLong() > maxBody) {
+            return binaryTooLarge();
+        }
+        InputStream in = request.getInputStream();
+        byte[] header = in.readNBytes(BINARY_HEADER_BYTES);
+        if (header.length < BINARY_HEADER_BYTES) {
+            return ResponseEntity.badRequest().body("{\"error\": \"ADN binario inválido: falta el encabezado con N\"}");
+        }
+        int n = ByteBuffer.wrap(header).getInt();
+        if (n < 4) {
+            return ResponseEntity.badRequest().body("{\"error\": \"El ADN debe tener al menos 4 secuencias\"}");
+        }
+        if (n > maxBinarySize) {
+            return binaryTooLarge();
+        }
+        // Las bases se leen directo al arreglo que se analiza y se guarda, sin copias
+        byte[] packed = in.readNBytes(DnaCodec.packedLength(n));
+        if (packed.length != DnaCodec.packedLength(n) || in.read() != -1) {
             return ResponseEntity.badRequest()
-                    .body("{\"error\": \"" + e.getMessage() + "\"}");
+                    .body("{\"error\": \"ADN binario inválido: el largo no corresponde a una matriz de " + n + "x" + n + "\"}");
+        }
+        try {
+            return verdictResponse(mutantService.analyzePacked(n, packed));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("{\"error\": \"Error interno del servidor\"}");
+        }
+    }
+
+    private ResponseEntity<?> binaryTooLarge() {
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                .body("{\"error\": \"El ADN binario admite como máximo N = " + maxBinarySize + "\"}");
+    }
+
+    private static ResponseEntity<?> verdictResponse(boolean isMutant) {
+        if (isMutant) {
+            return ResponseEntity.ok().body("{\"message\": \"Es un mutante\"}");
+        }
+        return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body("{\"message\": \"No es un mutante\"}");
+    }
+
+    @PostMapping(value = "/mutant/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+            summary = "Detectar mutantes en batch",
+            description = "Recibe un arreglo de ADN y devuelve, en el mismo orden, el veredicto o el error de cada uno"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultado por ADN",
+                    content = @Content(mediaType = "application/json",
+                            examples = @ExampleObject(value = "[{\"mutant\": true}, {\"mutant\": false}, {\"error\": \"ADN inválido: debe ser una matriz NxN con solo caracteres A, T, C, G\"}]"))),
+            @ApiResponse(responseCode = "400", description = "El cuerpo no es un arreglo JSON de ADN"),
+            @ApiResponse(responseCode = "413", description = "El batch supera mutant.batch.max-size o mutant.batch.max-cells",
+                    content = @Content(mediaType = "application/json",
+                            examples = @ExampleObject(value = "{\"error\": \"El batch admite como máximo 1000 ADN\"}")))
+    })
+    public ResponseEntity<?> isMutantBatch(HttpServletRequest request) throws IOException {
+        // Se lee con el parser de streaming, de a un ADN: al pasar de los límites se corta
+        // sin deserializar el resto del cuerpo
+        List<DnaRequest> requests = new ArrayList<>();
+        long cells = 0;
+        try (JsonParser parser = objectMapper.getFactory().createParser(request.getInputStream())) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return ResponseEntity.badRequest().body("{\"error\": \"Se esperaba un arreglo JSON de ADN\"}");
+            }
+            for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                if (token == null) {
+                    return ResponseEntity.badRequest().body("{\"error\": \"JSON inválido: arreglo sin cerrar\"}");
+                }
+                if (requests.size() == maxBatchSize) {
+                    return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                            .body("{\"error\": \"El batch admite como máximo " + maxBatchSize + " ADN\"}");
+                }
+                DnaRequest dnaRequest = objectMapper.readValue(parser, DnaRequest.class);
+                cells += cellCount(dnaRequest);
+                if (cells > maxBatchCells) {
+                    return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                            .body("{\"error\": \"El batch admite como máximo " + maxBatchCells + " bases en total\"}");
+                }
+                requests.add(dnaRequest);
+            }
+        } catch (JsonProcessingException e) {
+            return ResponseEntity.badRequest().body("{\"error\": \"JSON inválido\"}");
+        }
+        try {
+            // Las mismas validaciones de DnaRequest, pero por ADN: uno inválido no corta el batch
+            DnaResult[] results = new DnaResult[requests.size()];
+            List<String[]> valid = new ArrayList<>();
+            List<Integer> validIndexes = new ArrayList<>();
+            for (int i = 0; i < results.length; i++) {
+                String error = validationError(requests.get(i));
+                if (error != null) {
+                    results[i] = DnaResult.error(error);
+                } else {
+                    valid.add(requests.get(i).getDna());
+                    validIndexes.add(i);
+                }
+            }
+
+            List<DnaResult> analyzed = mutantService.analyzeBatch(valid);
+            for (int k = 0; k < analyzed.size(); k++) {
+                results[validIndexes.get(k)] = analyzed.get(k);
+            }
+            return ResponseEntity.ok(List.of(results));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("{\"error\": \"Error interno del servidor\"}");
         }
     }
 
-    // Endpoint GET /stats - Retorna estadísticas de ADN verificados
+    @PostMapping(value = "/mutant/rows", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+            summary = "Detectar si un ADN es mutante, leyendo fila por fila",
+            description = "Mismo contrato que POST /mutant, pero el cuerpo se lee en streaming: la detección usa " +
+                    "memoria O(N) y el veredicto mutante se responde apenas aparece la segunda secuencia. El resto " +
+                    "de la matriz se lee después para validarla y guardarla, empaquetada a 2 bits (N²/4 bytes). " +
+                    "N admite como máximo mutant.binary.max-size"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Es un mutante"),
+            @ApiResponse(responseCode = "403", description = "No es un mutante"),
+            @ApiResponse(responseCode = "400", description = "ADN inválido"),
+            @ApiResponse(responseCode = "413", description = "N supera mutant.binary.max-size")
+    })
+    public void isMutantRows(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        StreamingAnalysis analysis = mutantService.startStreaming();
+        boolean answered = false;
+        try (JsonParser parser = objectMapper.getFactory().createParser(request.getInputStream())) {
+            boolean dnaFound = false;
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Se esperaba un objeto {\"dna\": [...]}");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                JsonToken value = parser.nextToken();
+                if (!"dna".equals(parser.currentName())) {
+                    parser.skipChildren();
+                    continue;
+                }
+                if (value != JsonToken.START_ARRAY) {
+                    throw new IllegalArgumentException("El ADN no puede ser nulo");
+                }
+                dnaFound = true;
+                boolean firstRow = true;
+                while (parser.nextToken() == JsonToken.VALUE_STRING) {
+                    String row = parser.getText();
+                    // La primera fila fija N: la matriz empaquetada que se guarda ocupa N²/4 bytes
+                    if (firstRow && row.length() > maxBinarySize) {
+                        writeJson(response, HttpStatus.PAYLOAD_TOO_LARGE,
+                                "{\"error\": \"El ADN admite como máximo N = " + maxBinarySize + "\"}");
+                        return;
+                    }
+                    firstRow = false;
+                    if (analysis.acceptRow(row) && !answered) {
+                        // Veredicto anticipado: la respuesta sale y se sigue leyendo el cuerpo
+                        writeVerdict(response, true);
+                        answered = true;
+                    }
+                }
+                if (parser.currentToken() != JsonToken.END_ARRAY) {
+                    throw new IllegalArgumentException(PreparedDna.INVALID_DNA);
+                }
+            }
+            if (!dnaFound) {
+                throw new IllegalArgumentException("El ADN no puede ser nulo");
+            }
+
+            boolean isMutant = mutantService.completeStreaming(analysis);
+            if (!answered) {
+                writeVerdict(response, isMutant);
+            }
+        } catch (IllegalArgumentException | JsonProcessingException e) {
+            String message = e instanceof JsonProcessingException json ? "JSON inválido: " + json.getOriginalMessage() : e.getMessage();
+            if (answered) {
+                // El mutante ya se respondió; la matriz no se guarda
+                log.warn("ADN descartado después del veredicto anticipado: {}", message);
+            } else {
+                // Los mensajes de Jackson citan la entrada (comillas, caracteres de control): se escapan
+                writeJson(response, HttpStatus.BAD_REQUEST, objectMapper.writeValueAsString(Map.of("error", message)));
+            }
+        } catch (RuntimeException e) {
+            log.error("Error al analizar ADN en streaming", e);
+            if (!answered) {
+                writeJson(response, HttpStatus.INTERNAL_SERVER_ERROR, "{\"error\": \"Error interno del servidor\"}");
+            }
+        }
+    }
+
+    private static void writeVerdict(HttpServletResponse response, boolean isMutant) throws IOException {
+        if (isMutant) {
+            writeJson(response, HttpStatus.OK, "{\"message\": \"Es un mutante\"}");
+        } else {
+            writeJson(response, HttpStatus.FORBIDDEN, "{\"message\": \"No es un mutante\"}");
+        }
+    }
+
+    private static void writeJson(HttpServletResponse response, HttpStatus status, String body) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write(body);
+        // Se envía ya, aunque el cuerpo del request no se haya terminado de leer
+        response.flushBuffer();
+    }
+
+    @PostMapping(value = "/mutant/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Detectar mutantes en streaming",
+            description = "Recibe ADN como NDJSON (un objeto {\"dna\": [...]} por línea) o como arreglo JSON y " +
+                    "responde una línea NDJSON por ADN a medida que los analiza, sin límite de cantidad"
+    )
+    @ApiResponse(responseCode = "200", description = "Una línea por ADN",
+            content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                    examples = @ExampleObject(value = "{\"index\":0,\"mutant\":true}\n{\"index\":1,\"error\":\"El ADN debe tener al menos 4 secuencias\"}")))
+    public ResponseEntity<StreamingResponseBody> isMutantStream(HttpServletRequest request) {
+        StreamingResponseBody body = out -> analyzeStream(request.getInputStream(), out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    // Lee los ADN de a uno con el parser de streaming de Jackson, los analiza con
+    // MutantService.analyze (deduplicación, persistencia y /stats al día) y escribe cada resultado
+    // apenas está listo. En memoria solo está el ADN en curso
+    private void analyzeStream(InputStream in, OutputStream out) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(in);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            // El stream de la respuesta lo cierra Spring
+            generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            // Cada resultado termina en '\n' (writeResult), sin el espacio entre valores raíz
+            generator.setRootValueSeparator(null);
+            JsonToken token = parser.nextToken();
+            // Se acepta también un único arreglo JSON con todos los ADN
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+
+            for (long index = 0; token != null && token != JsonToken.END_ARRAY; index++, token = parser.nextToken()) {
+                DnaRequest dnaRequest;
+                try {
+                    dnaRequest = objectMapper.readValue(parser, DnaRequest.class);
+                } catch (JsonProcessingException e) {
+                    // Tras un JSON mal formado no se puede seguir leyendo el cuerpo
+                    writeResult(generator, index, null, "JSON inválido: " + e.getOriginalMessage());
+                    break;
+                }
+
+                String error = validationError(dnaRequest);
+                if (error != null) {
+                    writeResult(generator, index, null, error);
+                    continue;
+                }
+                try {
+                    DnaResult result = mutantService.analyze(dnaRequest.getDna());
+                    writeResult(generator, index, result.getMutant(), result.getError());
+                } catch (RuntimeException e) {
+                    writeResult(generator, index, null, "Error interno del servidor");
+                }
+                if (index % STREAM_FLUSH_EVERY == STREAM_FLUSH_EVERY - 1) {
+                    generator.flush();
+                }
+            }
+        }
+    }
+
+    private static void writeResult(JsonGenerator generator, long index, Boolean mutant, String error) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("index", index);
+        if (mutant != null) {
+            generator.writeBooleanField("mutant", mutant);
+        } else {
+            generator.writeStringField("error", error);
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private static long cellCount(DnaRequest request) {
+        long cells = 0;
+        if (request != null && request.getDna() != null) {
+            for (String row : request.getDna()) {
+                cells += row == null ? 0 : row.length();
+            }
+        }
+        return cells;
+    }
+
+    // Las mismas validaciones que @Valid aplica a DnaRequest, para un ADN de un batch
+    private String validationError(DnaRequest request) {
+        if (request == null) {
+            return "El ADN no puede ser nulo";
+        }
+        Set<ConstraintViolation<DnaRequest>> violations = validator.validate(request);
+        return violations.isEmpty() ? null : violations.iterator().next().getMessage();
+    }
+
+    // Endpoint GET /stats - Retorna estadísticas de ADN verificados. Con from, to o
+    // granularity responde los totales del rango desde stats_rollups (StatsRollups)
     @GetMapping("/stats")
     @Operation(summary = "Obtener estadísticas",
-            description = "Devuelve estadísticas de las verificaciones de ADN")
-    @ApiResponse(responseCode = "200", description = "Estadísticas obtenidas correctamente",
-            content = @Content(mediaType = "application/json",
-                    schema = @Schema(implementation = StatsResponse.class),
-                    examples = @ExampleObject(value = "{\n  \"count_mutant_dna\": 40,\n  \"count_human_dna\": 100,\n  \"ratio\": 0.4\n}")))
-    public ResponseEntity<StatsResponse> getStats() {
-        StatsResponse stats = mutantService.getStats();
-        return ResponseEntity.ok(stats);
+            description = "Devuelve estadísticas de las verificaciones de ADN. Con from, to o granularity devuelve " +
+                    "los totales del rango, uno por minuto u hora, con el histograma de N")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estadísticas obtenidas correctamente",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = StatsResponse.class),
+                            examples = @ExampleObject(value = "{\n  \"count_mutant_dna\": 40,\n  \"count_human_dna\": 100,\n  \"ratio\": 0.4\n}"))),
+            @ApiResponse(responseCode = "400", description = "Rango inválido",
+                    content = @Content(mediaType = "application/json",
+                            examples = @ExampleObject(value = "{\"error\": \"from debe ser anterior a to\"}")))
+    })
+    public ResponseEntity<?> getStats(
+            @Parameter(description = "Inicio del rango (ISO-8601); por defecto 24 horas antes de to")
+            @RequestParam(required = false) String from,
+            @Parameter(description = "Fin del rango, excluido (ISO-8601); por defecto ahora")
+            @RequestParam(required = false) String to,
+            @Parameter(description = "minute u hour (por defecto)")
+            @RequestParam(required = false) String granularity) {
+        if (from == null && to == null && granularity == null) {
+            StatsResponse stats = mutantService.getStats();
+            return ResponseEntity.ok(stats);
+        }
+        if (statsRollups == null) {
+            return ResponseEntity.badRequest()
+                    .body("{\"error\": \"Las estadísticas por rango están deshabilitadas\"}");
+        }
+        try {
+            return ResponseEntity.ok(statsRollups.query(from, to, granularity));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
     }
 }
@@ -0,0 +1,63 @@
+package org.example.mercadolibre.controller;
+
+import jakarta.validation.Valid;
+import org.example.mercadolibre.dto.DnaRequest;
+import org.example.mercadolibre.service.ReactiveMutantService;
+import org.example.mercadolibre.stats.StatsRollups;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+// POST /mutant y GET /stats sobre WebFlux (perfil reactive), con las mismas respuestas
+// que MutantController. Los endpoints de batch, filas, binario y stream quedan solo
+// en la versión servlet
+@RestController
+@Profile("reactive")
+public class ReactiveMutantController {
+
+    @Autowired
+    private ReactiveMutantService mutantService;
+
+    @PostMapping("/mutant")
+    public Mono<ResponseEntity<String>> isMutant(@Valid @RequestBody DnaRequest request) {
+        return mutantService.analyze(request.getDna()).map(result -> {
+            if (result.getError() != null) {
+                return ResponseEntity.badRequest().body("{\"error\": \"" + result.getError() + "\"}");
+            }
+            if (result.getMutant()) {
+                return ResponseEntity.ok("{\"message\": \"Es un mutante\"}");
+            }
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("{\"message\": \"No es un mutante\"}");
+        });
+    }
+
+    @Autowired(required = false)
+    private StatsRollups statsRollups;
+
+    // Con from, to o granularity: totales del rango desde stats_rollups, que se lee por
+    // JDBC (bloqueante), así que fuera del event loop
+    @GetMapping("/stats")
+    public Mono<ResponseEntity<?>> getStats(@RequestParam(required = false) String from,
+                                            @RequestParam(required = false) String to,
+                                            @RequestParam(required = false) String granularity) {
+        if (from == null && to == null && granularity == null) {
+            return Mono.fromSupplier(() -> ResponseEntity.ok(mutantService.getStats()));
+        }
+        if (statsRollups == null) {
+            return Mono.just(ResponseEntity.badRequest()
+                    .body("{\"error\": \"Las estadísticas por rango están deshabilitadas\"}"));
+        }
+        return Mono.<ResponseEntity<?>>fromCallable(() -> ResponseEntity.ok(statsRollups.query(from, to, granularity)))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest()
+                        .body("{\"error\": \"" + e.getMessage() + "\"}")))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,16 @@
+package org.example.mercadolibre.detector;
+
+import org.example.mercadolibre.dna.DnaMatrix;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Detector que además sabe recorrer una banda de filas, para que ParallelDetector reparta
+// la matriz entre hilos usando el mismo kernel (run-length, bitboard o SIMD)
+public interface BandDetector extends MutantDetector {
+
+    // Suma a found las ventanas cuya fila superior está en [fromRow, toRow): las
+    // horizontales de esas filas y las verticales y diagonales que empiezan en ellas
+    // (leen hasta la fila toRow + 2). found es compartido entre bandas: se actualiza fila
+    // por fila y el recorrido corta apenas pasa de 1. Devuelve el último valor visto
+    int countOwnedWindows(DnaMatrix dna, int fromRow, int toRow, AtomicInteger found);
+}
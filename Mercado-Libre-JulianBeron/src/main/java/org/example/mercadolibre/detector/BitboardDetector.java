@@ -0,0 +1,150 @@
+package org.example.mercadolibre.detector;
+
+import org.example.mercadolibre.dna.DnaMatrix;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Detector "bitboard": cada fila se empaqueta en long[] con 2 bits por base
+// (32 bases por palabra) y las corridas se buscan con XOR/AND/desplazamientos,
+// resolviendo 32 ventanas por operación. Solo se mantienen las últimas 4 filas
+// empaquetadas, así que la memoria de trabajo es O(N / 32) palabras
+public class BitboardDetector implements BandDetector {
+
+    // Bit bajo de cada carril de 2 bits
+    private static final long LOW_BITS = 0x5555555555555555L;
+
+    @Override
+    public boolean isMutant(DnaMatrix dna) {
+        int n = dna.getSize();
+        return n >= 4 && scan(dna.getCells(), n, 0, n, null) > 1;
+    }
+
+    @Override
+    public int countOwnedWindows(DnaMatrix dna, int fromRow, int toRow, AtomicInteger found) {
+        int n = dna.getSize();
+        return n >= 4 ? scan(dna.getCells(), n, fromRow, toRow, found) : found.get();
+    }
+
+    // Cuenta las ventanas cuya fila superior está en [fromRow, toRow); las verticales y
+    // diagonales de la fila t se resuelven al empaquetar la fila t + 3. Con shared null
+    // cuenta en local; si no, suma en shared fila por fila. Corta apenas el total pasa de 1
+    private static int scan(byte[] cells, int n, int fromRow, int toRow, AtomicInteger shared) {
+        int words = (n + 31) >>> 5;
+
+        // Posiciones válidas: inicio de ventana (j <= n - 4) y columna existente (j < n)
+        long[] windowMask = laneMask(words, n - 3);
+        long[] columnMask = laneMask(words, n);
+
+        // Búferes circulares indexados por fila & 3
+        long[][] rows = new long[4][words];
+        long[][] rowsShifted = new long[4][words];
+        long[][] vertical = new long[4][words];
+        long[][] down = new long[4][words];
+        long[][] up = new long[4][words];
+
+        long[] equal = new long[words];
+        long[] shifted1 = new long[words];
+        long[] shifted2 = new long[words];
+
+        int total = shared == null ? 0 : shared.get();
+        int end = Math.min(n, toRow + 3);
+
+        for (int r = fromRow; r < end && total <= 1; r++) {
+            int cur = r & 3;
+            long[] row = rows[cur];
+            pack(cells, r * n, n, row);
+            shift(row, 1, rowsShifted[cur]);
+
+            int found = 0;
+
+            // Horizontales: base[j] == base[j+1] == base[j+2] == base[j+3]
+            if (r < toRow) {
+                equal(row, rowsShifted[cur], equal);
+                shift(equal, 1, shifted1);
+                shift(equal, 2, shifted2);
+                found += countWindows(equal, shifted1, shifted2, windowMask);
+            }
+
+            if (r > fromRow) {
+                // Igualdades entre la fila anterior (p) y la actual
+                int p = (r - 1) & 3;
+                equal(rows[p], row, vertical[p]);               // (p, j)   == (p+1, j)
+                equal(rows[p], rowsShifted[cur], down[p]);      // (p, j)   == (p+1, j+1)
+                equal(row, rowsShifted[p], up[p]);              // (p+1, j) == (p, j+1)
+
+                if (r >= fromRow + 3) {
+                    // Ventanas que comienzan en la fila t = r - 3
+                    int t0 = (r - 3) & 3;
+                    int t1 = (r - 2) & 3;
+                    int t2 = p;
+
+                    found += countWindows(vertical[t0], vertical[t1], vertical[t2], columnMask);
+
+                    shift(down[t1], 1, shifted1);
+                    shift(down[t2], 2, shifted2);
+                    found += countWindows(down[t0], shifted1, shifted2, windowMask);
+
+                    shift(up[t1], 1, shifted1);
+                    shift(up[t0], 2, shifted2);
+                    found += countWindows(up[t2], shifted1, shifted2, windowMask);
+                }
+            }
+
+            if (shared == null) {
+                total += found;
+            } else {
+                total = found > 0 ? shared.addAndGet(found) : shared.get();
+            }
+        }
+
+        return total;
+    }
+
+    // Empaqueta una fila de códigos (0..3) a 2 bits por base
+    private static void pack(byte[] cells, int offset, int n, long[] dst) {
+        for (int w = 0, j = 0; w < dst.length; w++) {
+            long word = 0;
+            int end = Math.min(n, j + 32);
+            for (int shift = 0; j < end; j++, shift += 2) {
+                word |= (long) cells[offset + j] << shift;
+            }
+            dst[w] = word;
+        }
+    }
+
+    // dst[j] = src[j + bases] (desplazamiento entre palabras de 2 * bases bits)
+    private static void shift(long[] src, int bases, long[] dst) {
+        int bits = bases << 1;
+        int last = src.length - 1;
+        for (int w = 0; w < last; w++) {
+            dst[w] = (src[w] >>> bits) | (src[w + 1] << (64 - bits));
+        }
+        dst[last] = src[last] >>> bits;
+    }
+
+    // Bit bajo de cada carril en 1 si las bases de a y b coinciden
+    private static void equal(long[] a, long[] b, long[] dst) {
+        for (int w = 0; w < dst.length; w++) {
+            long x = a[w] ^ b[w];
+            dst[w] = ~(x | (x >>> 1)) & LOW_BITS;
+        }
+    }
+
+    private static int countWindows(long[] a, long[] b, long[] c, long[] mask) {
+        int count = 0;
+        for (int w = 0; w < mask.length; w++) {
+            count += Long.bitCount(a[w] & b[w] & c[w] & mask[w]);
+        }
+        return count;
+    }
+
+    // Máscara con el bit bajo activo en los carriles j < limit
+    private static long[] laneMask(int words, int limit) {
+        long[] mask = new long[words];
+        for (int w = 0; w < words; w++) {
+            int lanes = Math.min(32, Math.max(0, limit - (w << 5)));
+            mask[w] = lanes == 32 ? LOW_BITS : LOW_BITS & ((1L << (lanes << 1)) - 1);
+        }
+        return mask;
+    }
+}
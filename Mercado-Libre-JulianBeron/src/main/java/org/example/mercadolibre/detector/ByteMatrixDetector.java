@@ -0,0 +1,74 @@
+package org.example.mercadolibre.detector;
+
+import org.example.mercadolibre.dna.DnaMatrix;
+
+// Detector que recorre la matriz plana comparando índices directamente,
+// sin crear substrings ni StringBuilders por cada ventana de 4 celdas
+public class ByteMatrixDetector implements MutantDetector {
+
+    @Override
+    public boolean isMutant(DnaMatrix dna) {
+        int n = dna.getSize();
+        if (n < 4) {
+            return false;
+        }
+
+        byte[] cells = dna.getCells();
+        int sequencesFound = 0;
+
+        // Horizontales
+        for (int i = 0; i < n; i++) {
+            int row = i * n;
+            for (int j = 0; j <= n - 4; j++) {
+                int p = row + j;
+                if (isRun(cells, p, 1)) {
+                    sequencesFound++;
+                    if (sequencesFound > 1) return true;
+                }
+            }
+        }
+
+        // Verticales (fila por fila para recorrer la memoria en orden)
+        for (int i = 0; i <= n - 4; i++) {
+            int row = i * n;
+            for (int j = 0; j < n; j++) {
+                if (isRun(cells, row + j, n)) {
+                    sequencesFound++;
+                    if (sequencesFound > 1) return true;
+                }
+            }
+        }
+
+        // Diagonales descendentes ↘
+        for (int i = 0; i <= n - 4; i++) {
+            int row = i * n;
+            for (int j = 0; j <= n - 4; j++) {
+                if (isRun(cells, row + j, n + 1)) {
+                    sequencesFound++;
+                    if (sequencesFound > 1) return true;
+                }
+            }
+        }
+
+        // Diagonales ascendentes ↗
+        for (int i = 3; i < n; i++) {
+            int row = i * n;
+            for (int j = 0; j <= n - 4; j++) {
+                if (isRun(cells, row + j, 1 - n)) {
+                    sequencesFound++;
+                    if (sequencesFound > 1) return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    // true si las 4 celdas a partir de p (avanzando de a step) son iguales
+    private static boolean isRun(byte[] cells, int p, int step) {
+        byte first = cells[p];
+        return cells[p + step] == first
+                && cells[p + 2 * step] == first
+                && cells[p + 3 * step] == first;
+    }
+}
@@ -0,0 +1,10 @@
+package org.example.mercadolibre.detector;
+
+import org.example.mercadolibre.dna.DnaMatrix;
+
+// Estrategia de detección de mutantes: más de una secuencia de 4 bases iguales
+// (horizontal, vertical o diagonal) indica que el ADN es mutante
+public interface MutantDetector {
+
+    boolean isMutant(DnaMatrix dna);
+}
@@ -0,0 +1,75 @@
+package org.example.mercadolibre.detector;
+
+import org.example.mercadolibre.dna.DnaMatrix;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Detector paralelo para matrices muy grandes: divide la matriz en bandas de filas
+// que se recorren en un ForkJoinPool con el mismo kernel configurado (run-length,
+// bitboard o SIMD, ver BandDetector). Cada banda lee 3 filas de más (solapamiento)
+// pero solo cuenta las ventanas cuya fila superior le pertenece, así que las
+// secuencias que cruzan un borde se cuentan una sola vez. El contador global es
+// compartido: apenas llega a 2 todas las bandas dejan de trabajar.
+// Por debajo del umbral se delega en el detector secuencial
+public class ParallelDetector implements MutantDetector, AutoCloseable {
+
+    private final BandDetector sequential;
+    private final int threshold;
+    private final int bandRows;
+    private final ForkJoinPool pool;
+
+    public ParallelDetector(BandDetector sequential, int threshold, int parallelism, int bandRows) {
+        this.sequential = sequential;
+        this.threshold = threshold;
+        this.bandRows = bandRows;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    @Override
+    public boolean isMutant(DnaMatrix dna) {
+        int n = dna.getSize();
+        if (n < threshold || n < 4) {
+            return sequential.isMutant(dna);
+        }
+
+        AtomicInteger sequencesFound = new AtomicInteger();
+        pool.invoke(new BandScan(dna, 0, n, sequencesFound));
+        return sequencesFound.get() > 1;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    private class BandScan extends RecursiveAction {
+
+        private final DnaMatrix dna;
+        private final int fromRow;
+        private final int toRow;
+        private final AtomicInteger sequencesFound;
+
+        BandScan(DnaMatrix dna, int fromRow, int toRow, AtomicInteger sequencesFound) {
+            this.dna = dna;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+            this.sequencesFound = sequencesFound;
+        }
+
+        @Override
+        protected void compute() {
+            if (sequencesFound.get() > 1) {
+                return;
+            }
+            if (toRow - fromRow > bandRows) {
+                int middle = (fromRow + toRow) >>> 1;
+                invokeAll(new BandScan(dna, fromRow, middle, sequencesFound),
+                        new BandScan(dna, middle, toRow, sequencesFound));
+                return;
+            }
+            sequential.countOwnedWindows(dna, fromRow, toRow, sequencesFound);
+        }
+    }
+}
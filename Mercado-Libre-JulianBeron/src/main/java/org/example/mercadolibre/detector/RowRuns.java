@@ -0,0 +1,78 @@
+package org.example.mercadolibre.detector;
+
+// Recorrido de una fila compartido por RunLengthDetector y StreamingDetector: lleva el
+// largo de las corridas (↑, ↘, ↗) que terminan en cada columna de la fila anterior, y
+// con eso cuenta las ventanas de 4 que terminan en la fila nueva (también ←). Solo
+// necesita la fila de arriba, así que la memoria es O(N)
+final class RowRuns {
+
+    private final int n;
+    private int[] prevVertical;
+    private int[] prevDown;
+    private int[] prevUp;
+    private int[] vertical;
+    private int[] down;
+    private int[] up;
+
+    RowRuns(int n) {
+        this.n = n;
+        prevVertical = new int[n];
+        prevDown = new int[n];
+        prevUp = new int[n];
+        vertical = new int[n];
+        down = new int[n];
+        up = new int[n];
+    }
+
+    // Procesa la fila que empieza en cells[row]; above es la fila anterior (desde
+    // aboveCells[above]) o aboveCells null en la primera fila. Suma a found las
+    // secuencias que terminan en la fila y corta apenas pasa de 1 (mutante). Devuelve el total
+    int scan(byte[] cells, int row, byte[] aboveCells, int above, int found) {
+        return scan(cells, row, aboveCells, above, found, true);
+    }
+
+    // Igual, pero sin contar las horizontales si horizontals es false (filas debajo de
+    // una banda de ParallelDetector, que solo completan sus verticales y diagonales)
+    int scan(byte[] cells, int row, byte[] aboveCells, int above, int found, boolean horizontals) {
+        int horizontal = 0;
+        if (aboveCells == null) {
+            // Primera fila: solo puede haber corridas horizontales
+            for (int j = 0; j < n; j++) {
+                horizontal = j > 0 && cells[row + j - 1] == cells[row + j] ? horizontal + 1 : 1;
+                if (horizontals && horizontal >= 4 && ++found > 1) return found;
+                prevVertical[j] = 1;
+                prevDown[j] = 1;
+                prevUp[j] = 1;
+            }
+            return found;
+        }
+
+        for (int j = 0; j < n; j++) {
+            byte base = cells[row + j];
+
+            horizontal = j > 0 && cells[row + j - 1] == base ? horizontal + 1 : 1;
+            vertical[j] = aboveCells[above + j] == base ? prevVertical[j] + 1 : 1;
+            // ↘ termina en (i, j) viniendo de (i-1, j-1)
+            down[j] = j > 0 && aboveCells[above + j - 1] == base ? prevDown[j - 1] + 1 : 1;
+            // ↗ pasa por (i, j) y (i-1, j+1)
+            up[j] = j < n - 1 && aboveCells[above + j + 1] == base ? prevUp[j + 1] + 1 : 1;
+
+            if (horizontals && horizontal >= 4 && ++found > 1) return found;
+            if (vertical[j] >= 4 && ++found > 1) return found;
+            if (down[j] >= 4 && ++found > 1) return found;
+            if (up[j] >= 4 && ++found > 1) return found;
+        }
+
+        // La fila actual pasa a ser la anterior
+        int[] swap = prevVertical;
+        prevVertical = vertical;
+        vertical = swap;
+        swap = prevDown;
+        prevDown = down;
+        down = swap;
+        swap = prevUp;
+        prevUp = up;
+        up = swap;
+        return found;
+    }
+}
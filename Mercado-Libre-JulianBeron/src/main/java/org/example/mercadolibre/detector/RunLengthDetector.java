@@ -0,0 +1,56 @@
+package org.example.mercadolibre.detector;
+
+import org.example.mercadolibre.dna.DnaMatrix;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Detector de una sola pasada: recorre cada celda una vez llevando el largo de la
+// corrida que termina en ella para las 4 direcciones (←, ↑, ↖, ↗). Cada vez que una
+// corrida alcanza 4 o más se cuenta una ventana, igual que el recorrido por ventanas,
+// y se corta apenas aparece la segunda secuencia. El recorrido de cada fila es RowRuns,
+// el mismo de StreamingDetector
+public class RunLengthDetector implements BandDetector {
+
+    @Override
+    public boolean isMutant(DnaMatrix dna) {
+        int n = dna.getSize();
+        if (n < 4) {
+            return false;
+        }
+
+        byte[] cells = dna.getCells();
+        RowRuns runs = new RowRuns(n);
+
+        int sequencesFound = runs.scan(cells, 0, null, 0, 0);
+        for (int i = 1; i < n && sequencesFound <= 1; i++) {
+            int row = i * n;
+            sequencesFound = runs.scan(cells, row, cells, row - n, sequencesFound);
+        }
+        return sequencesFound > 1;
+    }
+
+    // Las corridas arrancan de cero en fromRow, así que toda ventana contada empieza en la
+    // banda o más abajo. Se siguen 3 filas más para cerrar las verticales y diagonales de
+    // las últimas filas de la banda, sin contar sus horizontales (son de la banda siguiente)
+    @Override
+    public int countOwnedWindows(DnaMatrix dna, int fromRow, int toRow, AtomicInteger found) {
+        int n = dna.getSize();
+        int total = found.get();
+        if (n < 4) {
+            return total;
+        }
+
+        byte[] cells = dna.getCells();
+        RowRuns runs = new RowRuns(n);
+        int end = Math.min(n, toRow + 3);
+
+        for (int i = fromRow; i < end && total <= 1; i++) {
+            int row = i * n;
+            int rowFound = i == fromRow
+                    ? runs.scan(cells, row, null, 0, 0)
+                    : runs.scan(cells, row, cells, row - n, 0, i < toRow);
+            total = rowFound > 0 ? found.addAndGet(rowFound) : found.get();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.mercadolibre.detector;
+
+import org.example.mercadolibre.dna.DnaMatrix;
+import org.example.mercadolibre.dna.PreparedDna;
+
+// Detector para ADN que llega fila por fila (POST /mutant/rows). Valida cada
+// fila al recibirla y, con el mismo recorrido que RunLengthDetector (RowRuns), lleva solo
+// la fila anterior y el largo de las corridas que terminan en cada columna (↑, ↖, ↗),
+// que resume todo lo que una ventana de 4 filas necesita. La memoria es O(N) y el
+// veredicto mutante se conoce apenas aparece la segunda secuencia, sin esperar al resto
+// de la matriz
+public class StreamingDetector {
+
+    private int n = -1;
+    private int rows;
+    private int sequencesFound;
+
+    private byte[] previous;
+    private byte[] current;
+    private RowRuns runs;
+
+    // Valida y procesa la siguiente fila. Devuelve true cuando ya se sabe que es mutante
+    public boolean acceptRow(String row) {
+        if (row == null || row.isEmpty() || (n >= 0 && (row.length() != n || rows == n))) {
+            throw new IllegalArgumentException(PreparedDna.INVALID_DNA);
+        }
+        if (n < 0) {
+            init(row.length());
+        }
+        for (int j = 0; j < n; j++) {
+            byte base = DnaMatrix.encode(row.charAt(j));
+            if (base < 0) {
+                throw new IllegalArgumentException(PreparedDna.INVALID_DNA);
+            }
+            current[j] = base;
+        }
+
+        // Ya decidido: solo se siguen validando las filas
+        if (!isMutant()) {
+            sequencesFound = runs.scan(current, 0, rows == 0 ? null : previous, 0, sequencesFound);
+        }
+        rows++;
+
+        byte[] swap = previous;
+        previous = current;
+        current = swap;
+
+        return isMutant();
+    }
+
+    // Códigos (A=0, C=1, G=2, T=3) de la última fila aceptada; se reutiliza en la siguiente
+    public byte[] lastRow() {
+        return previous;
+    }
+
+    public boolean isMutant() {
+        return sequencesFound > 1;
+    }
+
+    public int getSize() {
+        return n;
+    }
+
+    // Verifica que la matriz recibida esté completa (N filas de N bases) y da el veredicto
+    public boolean finish() {
+        if (rows < 4) {
+            throw new IllegalArgumentException("El ADN debe tener al menos 4 secuencias");
+        }
+        if (rows != n) {
+            throw new IllegalArgumentException(PreparedDna.INVALID_DNA);
+        }
+        return isMutant();
+    }
+
+    private void init(int size) {
+        n = size;
+        previous = new byte[size];
+        current = new byte[size];
+        runs = new RowRuns(size);
+    }
+}
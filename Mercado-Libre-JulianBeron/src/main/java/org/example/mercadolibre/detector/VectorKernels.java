@@ -0,0 +1,26 @@
+package org.example.mercadolibre.detector;
+
+import java.util.Optional;
+
+// Carga el kernel SIMD (source set "vector") solo si la JVM arrancó con
+// --add-modules jdk.incubator.vector y la clase está en el classpath
+public final class VectorKernels {
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_DETECTOR = "org.example.mercadolibre.detector.VectorDetector";
+
+    private VectorKernels() {
+    }
+
+    public static Optional<MutantDetector> load() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            Class<?> kernel = Class.forName(VECTOR_DETECTOR);
+            return Optional.of((MutantDetector) kernel.getDeclaredConstructor().newInstance());
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return Optional.empty();
+        }
+    }
+}
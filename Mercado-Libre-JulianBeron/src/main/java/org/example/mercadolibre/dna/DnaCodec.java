@@ -0,0 +1,88 @@
+package org.example.mercadolibre.dna;
+
+import java.util.Arrays;
+
+// Formato compacto de almacenamiento: 4 bases por byte (2 bits cada una, la primera
+// base en los bits bajos), fila por fila. La dimensión N se guarda aparte
+public final class DnaCodec {
+
+    private static final char[] BASES = {'A', 'C', 'G', 'T'};
+
+    private DnaCodec() {
+    }
+
+    public static int packedLength(int size) {
+        return (size * size + 3) >>> 2;
+    }
+
+    public static byte[] pack(DnaMatrix matrix) {
+        byte[] cells = matrix.getCells();
+        byte[] packed = new byte[packedLength(matrix.getSize())];
+        for (int i = 0; i < cells.length; i++) {
+            packed[i >>> 2] |= (byte) (cells[i] << ((i & 3) << 1));
+        }
+        return packed;
+    }
+
+    // Pone en 0 los bits del último byte que no corresponden a ninguna celda, así un
+    // cuerpo binario queda igual a pack(matrix)
+    public static void clearPadding(int size, byte[] packed) {
+        int used = (size * size) & 3;
+        if (used != 0) {
+            packed[packed.length - 1] &= (byte) ((1 << (used << 1)) - 1);
+        }
+    }
+
+    public static DnaMatrix unpack(int size, byte[] packed) {
+        byte[] cells = new byte[size * size];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = (byte) ((packed[i >>> 2] >>> ((i & 3) << 1)) & 3);
+        }
+        return new DnaMatrix(size, cells);
+    }
+
+    // Reconstruye las filas originales a partir del formato compacto
+    public static String[] decode(int size, byte[] packed) {
+        String[] rows = new String[size];
+        char[] row = new char[size];
+        for (int i = 0, k = 0; i < size; i++) {
+            for (int j = 0; j < size; j++, k++) {
+                row[j] = BASES[(packed[k >>> 2] >>> ((k & 3) << 1)) & 3];
+            }
+            rows[i] = new String(row);
+        }
+        return rows;
+    }
+
+    public static char toBase(int code) {
+        return BASES[code];
+    }
+
+    // Empaqueta fila por fila, sin saber de antemano cuántas filas van a llegar
+    public static final class Packer {
+
+        private static final long MAX_CELLS = (long) DnaMatrix.MAX_SIZE * DnaMatrix.MAX_SIZE;
+
+        private byte[] packed = new byte[64];
+        private int cells;
+
+        // Como mucho una matriz de DnaMatrix.MAX_SIZE: más celdas no entran en un int
+        public void append(byte[] codes) {
+            if ((long) cells + codes.length > MAX_CELLS) {
+                throw new IllegalArgumentException("El ADN admite como máximo N = " + DnaMatrix.MAX_SIZE);
+            }
+            int needed = (cells + codes.length + 3) >>> 2;
+            if (needed > packed.length) {
+                packed = Arrays.copyOf(packed, Math.max(needed, packed.length * 2));
+            }
+            for (byte code : codes) {
+                packed[cells >>> 2] |= (byte) (code << ((cells & 3) << 1));
+                cells++;
+            }
+        }
+
+        public byte[] toByteArray() {
+            return Arrays.copyOf(packed, (cells + 3) >>> 2);
+        }
+    }
+}
@@ -0,0 +1,358 @@
+package org.example.mercadolibre.dna;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Supplier;
+
+// Huella (hash) que identifica cada ADN. Las filas se vuelcan carácter a carácter a un
+// búfer por hilo (en hilos virtuales, tomado de un pool) que alimenta el digest, sin
+// concatenarlas ni pasar por getBytes.
+// Se hashea N y el largo de cada fila antes de sus bases, así dos matrices con los
+// mismos caracteres repartidos en filas distintas no colisionan.
+// Algoritmo (mutant.fingerprint.algorithm): sha-256 (32 bytes) o murmur3-128 (16 bytes,
+// no criptográfico pero bastante más rápido)
+@Component
+public class DnaFingerprinter {
+
+    public static final String SHA_256 = "sha-256";
+    public static final String MURMUR3_128 = "murmur3-128";
+
+    // Múltiplo de Murmur3.BLOCK: murmur procesa el búfer lleno sin arrastrar cola
+    private static final int BUFFER_SIZE = 8192;
+
+    // Los caracteres fuera de ASCII se hashean como 0xFF, que ningún ADN válido contiene
+    private static final byte NON_ASCII = (byte) 0xFF;
+
+    private static final byte[] BASES = {'A', 'C', 'G', 'T'};
+
+    // Sinks libres para hilos virtuales: un ThreadLocal crearía un Sink (búfer de 8 KB
+    // y digest) por request, porque cada request corre en un hilo virtual nuevo
+    private static final int IDLE_SINKS = 256;
+
+    private final String algorithm;
+    private final int hashLength;
+    private final Supplier<Sink> sinkFactory;
+    private final ThreadLocal<Sink> sinks;
+    private final BlockingQueue<Sink> idleSinks = new ArrayBlockingQueue<>(IDLE_SINKS);
+
+    public DnaFingerprinter() {
+        this(SHA_256);
+    }
+
+    @Autowired
+    public DnaFingerprinter(@Value("${mutant.fingerprint.algorithm:sha-256}") String algorithm) {
+        Supplier<Sink> factory = switch (algorithm) {
+            case SHA_256 -> ShaSink::new;
+            case MURMUR3_128 -> MurmurSink::new;
+            default -> throw new IllegalArgumentException("mutant.fingerprint.algorithm desconocido: " + algorithm);
+        };
+        // Falla al arrancar, no en el primer request
+        factory.get();
+        this.algorithm = algorithm;
+        this.hashLength = SHA_256.equals(algorithm) ? 32 : 16;
+        this.sinkFactory = factory;
+        this.sinks = ThreadLocal.withInitial(factory);
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    // Largo en bytes de todos los DnaHash que produce este algoritmo
+    public int getHashLength() {
+        return hashLength;
+    }
+
+    public DnaHash fingerprint(String[] dna) {
+        Sink sink = acquire();
+        try {
+            sink.putInt(dna.length);
+            for (String row : dna) {
+                sink.putRow(row);
+            }
+            return new DnaHash(sink.finish());
+        } finally {
+            release(sink);
+        }
+    }
+
+    // Misma huella que fingerprint(String[]) para la matriz ya codificada, sin pasar por String
+    public DnaHash fingerprint(DnaMatrix matrix) {
+        Sink sink = acquire();
+        try {
+            int n = matrix.getSize();
+            byte[] cells = matrix.getCells();
+            sink.putInt(n);
+            for (int offset = 0; offset < cells.length; offset += n) {
+                sink.putInt(n);
+                sink.putCodes(cells, offset, n);
+            }
+            return new DnaHash(sink.finish());
+        } finally {
+            release(sink);
+        }
+    }
+
+    // Validación, codificación y huella en una sola pasada por fila: cada carácter se
+    // busca en la tabla de DnaMatrix, se guarda su código en la matriz y se vuelca al
+    // búfer del hash. Un ADN inválido se informa en el resultado, sin excepciones
+    public PreparedDna prepare(String[] dna) {
+        String error = shapeError(dna);
+        if (error != null) {
+            return PreparedDna.invalid(error);
+        }
+        int n = dna.length;
+        Sink sink = acquire();
+        try {
+            sink.putInt(n);
+            byte[] cells = new byte[n * n];
+            for (int i = 0, offset = 0; i < n; i++, offset += n) {
+                if (!sink.putEncodedRow(dna[i], cells, offset)) {
+                    return PreparedDna.invalid(PreparedDna.INVALID_DNA);
+                }
+            }
+            return PreparedDna.valid(new DnaMatrix(n, cells), new DnaHash(sink.finish()));
+        } finally {
+            release(sink);
+        }
+    }
+
+    // Como prepare, pero sin huella: para quien solo necesita la matriz validada
+    public static PreparedDna encode(String[] dna) {
+        String error = shapeError(dna);
+        if (error != null) {
+            return PreparedDna.invalid(error);
+        }
+        int n = dna.length;
+        byte[] cells = new byte[n * n];
+        for (int i = 0, offset = 0; i < n; i++, offset += n) {
+            String row = dna[i];
+            for (int j = 0; j < n; j++) {
+                byte code = DnaMatrix.encode(row.charAt(j));
+                if (code < 0) {
+                    return PreparedDna.invalid(PreparedDna.INVALID_DNA);
+                }
+                cells[offset + j] = code;
+            }
+        }
+        return PreparedDna.valid(new DnaMatrix(n, cells), null);
+    }
+
+    // Forma NxN (filas no nulas y de largo N) antes de reservar las N x N celdas: un
+    // request con miles de filas vacías no llega a pedir la memoria de la matriz
+    private static String shapeError(String[] dna) {
+        if (dna == null) {
+            return "El ADN no puede ser nulo";
+        }
+        int n = dna.length;
+        if (n < 4) {
+            return "El ADN debe tener al menos 4 secuencias";
+        }
+        if (n > DnaMatrix.MAX_SIZE) {
+            return PreparedDna.INVALID_DNA;
+        }
+        for (String row : dna) {
+            if (row == null || row.length() != n) {
+                return PreparedDna.INVALID_DNA;
+            }
+        }
+        return null;
+    }
+
+    // Sink del hilo (de plataforma) o uno libre del pool (hilo virtual), ya reiniciado
+    private Sink acquire() {
+        Sink sink;
+        if (Thread.currentThread().isVirtual()) {
+            sink = idleSinks.poll();
+            if (sink == null) {
+                sink = sinkFactory.get();
+            }
+        } else {
+            sink = sinks.get();
+        }
+        sink.reset();
+        return sink;
+    }
+
+    private void release(Sink sink) {
+        if (Thread.currentThread().isVirtual()) {
+            // Con el pool lleno el sink se descarta
+            idleSinks.offer(sink);
+        }
+    }
+
+    // Huella que se arma fila por fila, para ADN que llegan en streaming. Da el mismo
+    // hash que fingerprint para una matriz NxN: se antepone rows, que debe ser N
+    public RowFingerprint begin(int rows) {
+        RowFingerprint fingerprint = new RowFingerprint(sinkFactory.get());
+        fingerprint.sink.putInt(rows);
+        return fingerprint;
+    }
+
+    public final class RowFingerprint {
+
+        // Sink propio (no el del hilo): el streaming puede intercalarse con otros análisis
+        private final Sink sink;
+
+        private RowFingerprint(Sink sink) {
+            this.sink = sink;
+        }
+
+        public void addRow(String row) {
+            sink.putRow(row);
+        }
+
+        public DnaHash finish() {
+            return new DnaHash(sink.finish());
+        }
+    }
+
+    private abstract static class Sink {
+
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        int pos;
+
+        void reset() {
+            pos = 0;
+            resetDigest();
+        }
+
+        // Entero big-endian, byte a byte para poder cortar el búfer en cualquier punto
+        void putInt(int value) {
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                put((byte) (value >>> shift));
+            }
+        }
+
+        // Largo de la fila (-1 si es null) seguido de sus caracteres
+        void putRow(String row) {
+            if (row == null) {
+                putInt(-1);
+                return;
+            }
+            int length = row.length();
+            putInt(length);
+            for (int j = 0; j < length; ) {
+                int end = j + Math.min(length - j, BUFFER_SIZE - pos);
+                for (; j < end; j++) {
+                    char c = row.charAt(j);
+                    buffer[pos++] = c < 0x80 ? (byte) c : NON_ASCII;
+                }
+                flushIfFull();
+            }
+        }
+
+        // Como putRow, pero además valida cada carácter y guarda su código en cells.
+        // Devuelve false en el primer carácter que no es A, T, C, G
+        boolean putEncodedRow(String row, byte[] cells, int offset) {
+            int length = row.length();
+            putInt(length);
+            for (int j = 0; j < length; ) {
+                int end = j + Math.min(length - j, BUFFER_SIZE - pos);
+                for (; j < end; j++) {
+                    char c = row.charAt(j);
+                    byte code = DnaMatrix.encode(c);
+                    if (code < 0) {
+                        return false;
+                    }
+                    cells[offset + j] = code;
+                    buffer[pos++] = (byte) c;
+                }
+                flushIfFull();
+            }
+            return true;
+        }
+
+        // Bases codificadas (0..3) escritas como sus letras ASCII
+        void putCodes(byte[] codes, int offset, int length) {
+            for (int j = 0; j < length; ) {
+                int end = j + Math.min(length - j, BUFFER_SIZE - pos);
+                for (; j < end; j++) {
+                    buffer[pos++] = BASES[codes[offset + j]];
+                }
+                flushIfFull();
+            }
+        }
+
+        byte[] finish() {
+            return finish(pos);
+        }
+
+        private void put(byte value) {
+            buffer[pos++] = value;
+            flushIfFull();
+        }
+
+        private void flushIfFull() {
+            if (pos == BUFFER_SIZE) {
+                update(pos);
+                pos = 0;
+            }
+        }
+
+        abstract void resetDigest();
+
+        // Consume los primeros len bytes del búfer (len == BUFFER_SIZE)
+        abstract void update(int len);
+
+        // Consume los últimos len bytes y devuelve el hash
+        abstract byte[] finish(int len);
+    }
+
+    private static final class ShaSink extends Sink {
+
+        private final MessageDigest digest;
+
+        ShaSink() {
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 no disponible", e);
+            }
+        }
+
+        @Override
+        void resetDigest() {
+            digest.reset();
+        }
+
+        @Override
+        void update(int len) {
+            digest.update(buffer, 0, len);
+        }
+
+        @Override
+        byte[] finish(int len) {
+            digest.update(buffer, 0, len);
+            return digest.digest();
+        }
+    }
+
+    private static final class MurmurSink extends Sink {
+
+        private final Murmur3 murmur = new Murmur3();
+
+        @Override
+        void resetDigest() {
+            murmur.reset();
+        }
+
+        @Override
+        void update(int len) {
+            murmur.update(buffer, 0, len);
+        }
+
+        @Override
+        byte[] finish(int len) {
+            int blocks = len & -Murmur3.BLOCK;
+            murmur.update(buffer, 0, blocks);
+            return murmur.finish(buffer, blocks, len - blocks);
+        }
+    }
+}
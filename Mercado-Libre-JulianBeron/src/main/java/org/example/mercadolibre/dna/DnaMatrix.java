@@ -0,0 +1,69 @@
+package org.example.mercadolibre.dna;
+
+import java.util.Arrays;
+
+// Matriz NxN de ADN copiada una sola vez a un byte[] plano (fila por fila).
+// Cada celda guarda el código de la base: A=0, C=1, G=2, T=3
+public class DnaMatrix {
+
+    public static final byte A = 0;
+    public static final byte C = 1;
+    public static final byte G = 2;
+    public static final byte T = 3;
+
+    // N * N tiene que entrar en un int (el arreglo plano)
+    public static final int MAX_SIZE = 46340;
+
+    private static final byte INVALID = -1;
+    private static final byte[] CODES = new byte[128];
+
+    static {
+        Arrays.fill(CODES, INVALID);
+        CODES['A'] = A;
+        CODES['C'] = C;
+        CODES['G'] = G;
+        CODES['T'] = T;
+    }
+
+    private final int size;
+    private final byte[] cells;
+
+    public DnaMatrix(int size, byte[] cells) {
+        if (cells.length != size * size) {
+            throw new IllegalArgumentException("La matriz debe tener " + size * size + " celdas");
+        }
+        this.size = size;
+        this.cells = cells;
+    }
+
+    // Copia las filas (ya validadas como NxN sobre A, T, C, G) al arreglo plano
+    public static DnaMatrix fromRows(String[] rows) {
+        int n = rows.length;
+        byte[] cells = new byte[n * n];
+        int offset = 0;
+        for (String row : rows) {
+            for (int j = 0; j < n; j++) {
+                cells[offset++] = CODES[row.charAt(j)];
+            }
+        }
+        return new DnaMatrix(n, cells);
+    }
+
+    // Código de la base para un carácter, o -1 si no es A, T, C, G
+    public static byte encode(char base) {
+        return base < CODES.length ? CODES[base] : INVALID;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    // Acceso directo al arreglo interno: los detectores lo recorren sin copiarlo
+    public byte[] getCells() {
+        return cells;
+    }
+
+    public byte get(int row, int column) {
+        return cells[row * size + column];
+    }
+}
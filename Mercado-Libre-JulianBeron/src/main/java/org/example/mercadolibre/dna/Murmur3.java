@@ -0,0 +1,102 @@
+package org.example.mercadolibre.dna;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+// MurmurHash3 x64 de 128 bits (semilla 0), incremental: update recibe bloques
+// de 16 bytes y finish la cola. El resultado es h1 seguido de h2 en little-endian,
+// igual que la implementación de referencia y la de Guava
+public final class Murmur3 {
+
+    public static final int BLOCK = 16;
+
+    private static final VarHandle LONG_LE =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    private long h1;
+    private long h2;
+    private long length;
+
+    public void reset() {
+        h1 = 0;
+        h2 = 0;
+        length = 0;
+    }
+
+    // len debe ser múltiplo de BLOCK
+    public void update(byte[] data, int offset, int len) {
+        for (int i = offset, end = offset + len; i < end; i += BLOCK) {
+            long k1 = (long) LONG_LE.get(data, i);
+            long k2 = (long) LONG_LE.get(data, i + 8);
+
+            h1 ^= mixK1(k1);
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+
+            h2 ^= mixK2(k2);
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+        length += len;
+    }
+
+    // Procesa los últimos len (< BLOCK) bytes y devuelve el hash de 16 bytes
+    public byte[] finish(byte[] data, int offset, int len) {
+        long k1 = 0;
+        long k2 = 0;
+        for (int i = len - 1; i >= 8; i--) {
+            k2 = (k2 << 8) | (data[offset + i] & 0xFF);
+        }
+        for (int i = Math.min(len, 8) - 1; i >= 0; i--) {
+            k1 = (k1 << 8) | (data[offset + i] & 0xFF);
+        }
+        if (len > 8) {
+            h2 ^= mixK2(k2);
+        }
+        if (len > 0) {
+            h1 ^= mixK1(k1);
+        }
+        length += len;
+
+        h1 ^= length;
+        h2 ^= length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix(h1);
+        h2 = fmix(h2);
+        h1 += h2;
+        h2 += h1;
+
+        byte[] hash = new byte[16];
+        LONG_LE.set(hash, 0, h1);
+        LONG_LE.set(hash, 8, h2);
+        return hash;
+    }
+
+    private static long mixK1(long k1) {
+        k1 *= C1;
+        k1 = Long.rotateLeft(k1, 31);
+        return k1 * C2;
+    }
+
+    private static long mixK2(long k2) {
+        k2 *= C2;
+        k2 = Long.rotateLeft(k2, 33);
+        return k2 * C1;
+    }
+
+    private static long fmix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
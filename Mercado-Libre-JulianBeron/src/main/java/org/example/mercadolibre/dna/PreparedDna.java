@@ -0,0 +1,21 @@
+package org.example.mercadolibre.dna;
+
+// Resultado de DnaFingerprinter.prepare: la matriz ya validada y codificada junto con
+// su huella (null si salió de DnaFingerprinter.encode), o el motivo por el que el ADN es
+// inválido (sin lanzar excepciones)
+public record PreparedDna(DnaMatrix matrix, DnaHash hash, String error) {
+
+    public static final String INVALID_DNA = "ADN inválido: debe ser una matriz NxN con solo caracteres A, T, C, G";
+
+    public static PreparedDna valid(DnaMatrix matrix, DnaHash hash) {
+        return new PreparedDna(matrix, hash, null);
+    }
+
+    public static PreparedDna invalid(String error) {
+        return new PreparedDna(null, null, error);
+    }
+
+    public boolean isValid() {
+        return error == null;
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.mercadolibre.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Resultado del análisis de un ADN: el veredicto o el error de validación
+// (lo devuelven MutantService.analyze y POST /mutant/batch, uno por ADN)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DnaResult {
+
+    private Boolean mutant;
+    private String error;
+
+    public DnaResult() {
+    }
+
+    public static DnaResult verdict(boolean mutant) {
+        DnaResult result = new DnaResult();
+        result.mutant = mutant;
+        return result;
+    }
+
+    public static DnaResult error(String error) {
+        DnaResult result = new DnaResult();
+        result.error = error;
+        return result;
+    }
+
+    public Boolean getMutant() {
+        return mutant;
+    }
+
+    public void setMutant(Boolean mutant) {
+        this.mutant = mutant;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,115 @@
+package org.example.mercadolibre.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+// Respuesta de GET /stats con from/to/granularity: los totales del rango y uno por
+// bucket con registros (los vacíos no se listan). El histograma cuenta ADN por rango
+// de N, p. ej. "4-7", "8-15"
+public class StatsRangeResponse extends StatsResponse {
+
+    @JsonProperty("from")
+    private Instant from;
+
+    @JsonProperty("to")
+    private Instant to;
+
+    @JsonProperty("granularity")
+    private String granularity;
+
+    @JsonProperty("dna_size_histogram")
+    private Map<String, Long> sizeHistogram;
+
+    @JsonProperty("buckets")
+    private List<Bucket> buckets;
+
+    public StatsRangeResponse() {
+    }
+
+    public StatsRangeResponse(Instant from, Instant to, String granularity, long countMutantDna, long countHumanDna,
+                              Map<String, Long> sizeHistogram, List<Bucket> buckets) {
+        super(countMutantDna, countHumanDna);
+        this.from = from;
+        this.to = to;
+        this.granularity = granularity;
+        this.sizeHistogram = sizeHistogram;
+        this.buckets = buckets;
+    }
+
+    public Instant getFrom() {
+        return from;
+    }
+
+    public void setFrom(Instant from) {
+        this.from = from;
+    }
+
+    public Instant getTo() {
+        return to;
+    }
+
+    public void setTo(Instant to) {
+        this.to = to;
+    }
+
+    public String getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(String granularity) {
+        this.granularity = granularity;
+    }
+
+    public Map<String, Long> getSizeHistogram() {
+        return sizeHistogram;
+    }
+
+    public void setSizeHistogram(Map<String, Long> sizeHistogram) {
+        this.sizeHistogram = sizeHistogram;
+    }
+
+    public List<Bucket> getBuckets() {
+        return buckets;
+    }
+
+    public void setBuckets(List<Bucket> buckets) {
+        this.buckets = buckets;
+    }
+
+    public static class Bucket extends StatsResponse {
+
+        @JsonProperty("start")
+        private Instant start;
+
+        @JsonProperty("dna_size_histogram")
+        private Map<String, Long> sizeHistogram;
+
+        public Bucket() {
+        }
+
+        public Bucket(Instant start, long countMutantDna, long countHumanDna, Map<String, Long> sizeHistogram) {
+            super(countMutantDna, countHumanDna);
+            this.start = start;
+            this.sizeHistogram = sizeHistogram;
+        }
+
+        public Instant getStart() {
+            return start;
+        }
+
+        public void setStart(Instant start) {
+            this.start = start;
+        }
+
+        public Map<String, Long> getSizeHistogram() {
+            return sizeHistogram;
+        }
+
+        public void setSizeHistogram(Map<String, Long> sizeHistogram) {
+            this.sizeHistogram = sizeHistogram;
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package org.example.mercadolibre.entity;
 
 import jakarta.persistence.*;
+import org.example.mercadolibre.dna.DnaCodec;
+import org.example.mercadolibre.dna.DnaHash;
+
 import java.time.LocalDateTime;
 
+// Registro de ADN analizado. El hash se guarda como clave binaria de 32 bytes y la
+// secuencia en formato compacto (2 bits por base, ver DnaCodec) junto con su dimensión
 @Entity
 @Table(name = "dna_records")
 public class Dna {
@@ -11,8 +16,9 @@ public class Dna {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(name = "dna_hash", nullable = false, unique = true, length = 64)
-    private String dnaHash;
+    @Convert(converter = DnaHashConverter.class)
+    @Column(name = "dna_hash", nullable = false, unique = true, length = 32)
+    private DnaHash dnaHash;
 
     @Column(name = "is_mutant", nullable = false)
     private boolean isMutant;
@@ -20,16 +26,20 @@ public class Dna {
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
-    @Column(name = "dna_sequence", columnDefinition = "TEXT")
-    private String dnaSequence;
+    @Column(name = "dna_size", nullable = false)
+    private int dnaSize;
+
+    @Column(name = "dna_sequence", columnDefinition = "VARBINARY")
+    private byte[] dnaSequence;
 
     public Dna() {
         this.createdAt = LocalDateTime.now();
     }
 
-    public Dna(String dnaHash, boolean isMutant, String dnaSequence) {
+    public Dna(DnaHash dnaHash, boolean isMutant, int dnaSize, byte[] dnaSequence) {
         this.dnaHash = dnaHash;
         this.isMutant = isMutant;
+        this.dnaSize = dnaSize;
         this.dnaSequence = dnaSequence;
         this.createdAt = LocalDateTime.now();
     }
@@ -42,11 +52,11 @@ public class Dna {
         this.id = id;
     }
 
-    public String getDnaHash() {
+    public DnaHash getDnaHash() {
         return dnaHash;
     }
 
-    public void setDnaHash(String dnaHash) {
+    public void setDnaHash(DnaHash dnaHash) {
         this.dnaHash = dnaHash;
     }
 
@@ -66,11 +76,24 @@ public class Dna {
         this.createdAt = createdAt;
     }
 
-    public String getDnaSequence() {
+    public int getDnaSize() {
+        return dnaSize;
+    }
+
+    public void setDnaSize(int dnaSize) {
+        this.dnaSize = dnaSize;
+    }
+
+    public byte[] getDnaSequence() {
         return dnaSequence;
     }
 
-    public void setDnaSequence(String dnaSequence) {
+    public void setDnaSequence(byte[] dnaSequence) {
         this.dnaSequence = dnaSequence;
     }
+
+    // Filas originales decodificadas desde el formato compacto
+    public String[] decodeDna() {
+        return DnaCodec.decode(dnaSize, dnaSequence);
+    }
 }
\ No newline at end of file
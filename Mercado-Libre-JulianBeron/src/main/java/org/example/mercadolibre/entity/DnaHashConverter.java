@@ -0,0 +1,20 @@
+package org.example.mercadolibre.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.example.mercadolibre.dna.DnaHash;
+
+// Guarda DnaHash como clave binaria (VARBINARY) en dna_records
+@Converter
+public class DnaHashConverter implements AttributeConverter<DnaHash, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(DnaHash hash) {
+        return hash == null ? null : hash.toBytes();
+    }
+
+    @Override
+    public DnaHash convertToEntityAttribute(byte[] bytes) {
+        return bytes == null ? null : new DnaHash(bytes);
+    }
+}
@@ -0,0 +1,97 @@
+package org.example.mercadolibre.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+// Totales de un bucket de tiempo (ver StatsRollups): una fila por minuto y otra por hora,
+// con los conteos de mutantes/humanos y el histograma de N codificado en bytes. JPA solo
+// crea la tabla; se lee y se escribe por JDBC
+@Entity
+@Table(name = "stats_rollups")
+@IdClass(StatsRollup.Key.class)
+public class StatsRollup {
+
+    @Id
+    @Column(name = "bucket_seconds")
+    private int bucketSeconds;
+
+    // Inicio del bucket, epoch en segundos (UTC)
+    @Id
+    @Column(name = "bucket_start")
+    private long bucketStart;
+
+    @Column(name = "mutant_count", nullable = false)
+    private long mutantCount;
+
+    @Column(name = "human_count", nullable = false)
+    private long humanCount;
+
+    @Column(name = "size_histogram", columnDefinition = "VARBINARY")
+    private byte[] sizeHistogram;
+
+    public int getBucketSeconds() {
+        return bucketSeconds;
+    }
+
+    public void setBucketSeconds(int bucketSeconds) {
+        this.bucketSeconds = bucketSeconds;
+    }
+
+    public long getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(long bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public long getMutantCount() {
+        return mutantCount;
+    }
+
+    public void setMutantCount(long mutantCount) {
+        this.mutantCount = mutantCount;
+    }
+
+    public long getHumanCount() {
+        return humanCount;
+    }
+
+    public void setHumanCount(long humanCount) {
+        this.humanCount = humanCount;
+    }
+
+    public byte[] getSizeHistogram() {
+        return sizeHistogram;
+    }
+
+    public void setSizeHistogram(byte[] sizeHistogram) {
+        this.sizeHistogram = sizeHistogram;
+    }
+
+    public static class Key implements Serializable {
+
+        private int bucketSeconds;
+        private long bucketStart;
+
+        public Key() {
+        }
+
+        public Key(int bucketSeconds, long bucketStart) {
+            this.bucketSeconds = bucketSeconds;
+            this.bucketStart = bucketStart;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && key.bucketSeconds == bucketSeconds && key.bucketStart == bucketStart;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(bucketSeconds, bucketStart);
+        }
+    }
+}
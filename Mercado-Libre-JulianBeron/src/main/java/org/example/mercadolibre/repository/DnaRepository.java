@@ -1,19 +1,28 @@
 package org.example.mercadolibre.repository;
 
+import org.example.mercadolibre.dna.DnaHash;
 import org.example.mercadolibre.entity.Dna;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 // Repositorio JPA para acceso a datos de ADN
 @Repository
-public interface DnaRepository extends JpaRepository<Dna, Long> {
+public interface DnaRepository extends JpaRepository<Dna, Long>, DnaRepositoryCustom {
 
-    Optional<Dna> findByDnaHash(String dnaHash);
+    Optional<Dna> findByDnaHash(DnaHash dnaHash);
 
     long countByIsMutant(boolean isMutant);
 
-    boolean existsByDnaHash(String dnaHash);
+    boolean existsByDnaHash(DnaHash dnaHash);
+
+    // Veredictos de varios hashes en una sola consulta (WHERE dna_hash IN (...))
+    @Query("select new org.example.mercadolibre.repository.DnaVerdict(d.dnaHash, d.isMutant) " +
+            "from Dna d where d.dnaHash in :hashes")
+    List<DnaVerdict> findVerdicts(@Param("hashes") Collection<DnaHash> hashes);
 }
@@ -0,0 +1,22 @@
+package org.example.mercadolibre.repository;
+
+import org.example.mercadolibre.dna.DnaHash;
+import org.example.mercadolibre.entity.Dna;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+// Operaciones de escritura (y el recorrido de hashes) de DnaRepository con JDBC directo
+public interface DnaRepositoryCustom {
+
+    // Inserta el registro si su hash no existe, en una sola sentencia. Devuelve false
+    // si ya estaba, incluso si otra transacción lo insertó en paralelo
+    boolean insertIfAbsent(Dna dna);
+
+    // Inserta en un solo batch JDBC los registros cuyo hash no exista todavía.
+    // Devuelve, por registro, 1 si se insertó y 0 si ya estaba (o se repite en el batch)
+    int[] insertAllIfAbsent(List<Dna> records);
+
+    // Recorre los hashes de dna_records fila por fila, sin cargar entidades
+    void forEachHash(Consumer<DnaHash> action);
+}
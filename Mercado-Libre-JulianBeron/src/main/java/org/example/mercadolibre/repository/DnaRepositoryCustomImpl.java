@@ -0,0 +1,76 @@
+package org.example.mercadolibre.repository;
+
+import org.example.mercadolibre.dna.DnaHash;
+import org.example.mercadolibre.entity.Dna;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Implementación JDBC de DnaRepositoryCustom. Se usa JDBC directo porque el id
+// IDENTITY impide que Hibernate agrupe los INSERT en batches
+public class DnaRepositoryCustomImpl implements DnaRepositoryCustom {
+
+    private static final String INSERT_IF_ABSENT =
+            "INSERT INTO dna_records (dna_hash, is_mutant, created_at, dna_size, dna_sequence) " +
+            "SELECT ?, ?, ?, ?, ? WHERE NOT EXISTS (SELECT 1 FROM dna_records WHERE dna_hash = ?)";
+
+    static final String ALL_HASHES = "SELECT dna_hash FROM dna_records";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public DnaRepositoryCustomImpl(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public boolean insertIfAbsent(Dna dna) {
+        try {
+            return jdbcTemplate.update(INSERT_IF_ABSENT, ps -> bind(ps, dna)) == 1;
+        } catch (DuplicateKeyException e) {
+            // Otra transacción insertó el mismo hash entre el NOT EXISTS y el INSERT
+            return false;
+        }
+    }
+
+    @Override
+    public int[] insertAllIfAbsent(List<Dna> records) {
+        try {
+            // En una transacción: si el batch choca con un INSERT concurrente no queda a medias
+            int[][] counts = transactionTemplate.execute(status ->
+                    jdbcTemplate.batchUpdate(INSERT_IF_ABSENT, records, records.size(), DnaRepositoryCustomImpl::bind));
+            return counts.length == 0 ? new int[0] : counts[0];
+        } catch (DuplicateKeyException e) {
+            // Se reintenta de a uno; los que ya estaban quedan en 0
+            int[] counts = new int[records.size()];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = insertIfAbsent(records.get(i)) ? 1 : 0;
+            }
+            return counts;
+        }
+    }
+
+    @Override
+    public void forEachHash(Consumer<DnaHash> action) {
+        jdbcTemplate.query(ALL_HASHES, rs -> {
+            action.accept(new DnaHash(rs.getBytes(1)));
+        });
+    }
+
+    private static void bind(PreparedStatement ps, Dna dna) throws SQLException {
+        ps.setBytes(1, dna.getDnaHash().toBytes());
+        ps.setBoolean(2, dna.isMutant());
+        ps.setTimestamp(3, Timestamp.valueOf(dna.getCreatedAt()));
+        ps.setInt(4, dna.getDnaSize());
+        ps.setBytes(5, dna.getDnaSequence());
+        ps.setBytes(6, dna.getDnaHash().toBytes());
+    }
+}
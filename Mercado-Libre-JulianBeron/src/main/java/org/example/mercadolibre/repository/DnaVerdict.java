@@ -0,0 +1,7 @@
+package org.example.mercadolibre.repository;
+
+import org.example.mercadolibre.dna.DnaHash;
+
+// Proyección hash -> veredicto, sin traer la secuencia almacenada
+public record DnaVerdict(DnaHash dnaHash, boolean mutant) {
+}
@@ -0,0 +1,252 @@
+package org.example.mercadolibre.repository;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.example.mercadolibre.dna.DnaHash;
+import org.example.mercadolibre.entity.Dna;
+import org.example.mercadolibre.stats.StatsCounters;
+import org.example.mercadolibre.stats.StatsRollups;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Persistencia diferida (write-behind) de registros nuevos: el request devuelve el
+// veredicto enseguida y un hilo de fondo inserta los registros encolados en batches
+// JDBC. Mientras un registro está en la cola su veredicto se ve con findPending,
+// así los requests duplicados no lo vuelven a procesar.
+// Un batch que falla (base caída, índice off-heap lleno, error de disco del log) se
+// reintenta WRITE_ATTEMPTS veces; si sigue fallando se descarta, se descuenta de /stats
+// y se saca de pendientes. El writer nunca muere por una excepción del store
+@Component
+@ConditionalOnProperty(name = "mutant.write-behind.enabled", havingValue = "true")
+public class DnaWriteBehind implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(DnaWriteBehind.class);
+
+    private static final int WRITE_ATTEMPTS = 3;
+    private static final long RETRY_BACKOFF_MILLIS = 100;
+
+    private final VerdictStore verdictStore;
+    private final StatsCounters statsCounters;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final long offerTimeoutNanos;
+
+    private final BlockingQueue<Dna> queue;
+    private final Map<DnaHash, Boolean> pending = new ConcurrentHashMap<>();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private final LongAdder batchesWritten = new LongAdder();
+    private final LongAdder recordsWritten = new LongAdder();
+    private final LongAdder callerWrites = new LongAdder();
+    private final LongAdder failedRecords = new LongAdder();
+
+    // Los duplicados también se descuentan de los totales por minuto/hora
+    @Autowired(required = false)
+    private StatsRollups statsRollups;
+
+    @Autowired
+    public DnaWriteBehind(VerdictStore verdictStore,
+                          StatsCounters statsCounters,
+                          @Value("${mutant.write-behind.queue-capacity:10000}") int queueCapacity,
+                          @Value("${mutant.write-behind.batch-size:500}") int batchSize,
+                          @Value("${mutant.write-behind.linger:20ms}") Duration linger,
+                          @Value("${mutant.write-behind.offer-timeout:50ms}") Duration offerTimeout,
+                          @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.verdictStore = verdictStore;
+        this.statsCounters = statsCounters;
+        this.batchSize = batchSize;
+        this.lingerNanos = linger.toNanos();
+        this.offerTimeoutNanos = offerTimeout.toNanos();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        // Con hilos virtuales el writer tampoco ocupa un hilo de plataforma mientras espera a JDBC
+        Thread.Builder builder = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon();
+        this.writer = builder.name("dna-write-behind").start(this::drainLoop);
+    }
+
+    // Veredicto de un registro que todavía está en la cola, o null
+    public Boolean findPending(DnaHash dnaHash) {
+        return pending.get(dnaHash);
+    }
+
+    // Encola el registro. Devuelve false si ya había uno pendiente con el mismo hash.
+    // Si la cola sigue llena después de offer-timeout (contrapresión), o el writer
+    // ya se detuvo, el propio request lo inserta
+    public boolean submit(Dna dna) {
+        if (pending.putIfAbsent(dna.getDnaHash(), dna.isMutant()) != null) {
+            return false;
+        }
+        boolean queued = false;
+        if (running) {
+            try {
+                queued = queue.offer(dna, offerTimeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // close() pudo vaciar la cola antes de que llegara este offer: si el registro
+        // sigue ahí, lo saca y lo escribe el propio request
+        if (queued && !running && queue.remove(dna)) {
+            queued = false;
+        }
+        if (!queued) {
+            callerWrites.increment();
+            write(List.of(dna));
+        }
+        return true;
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    // Detiene el writer e inserta todo lo que quedó en la cola, hasta vaciarla (los
+    // submit que encolan después de ver running en true también pueden llegar acá)
+    @PreDestroy
+    public void close() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        List<Dna> remaining = new ArrayList<>(batchSize);
+        while (queue.drainTo(remaining, batchSize) > 0) {
+            write(remaining);
+            remaining.clear();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("mutant.write-behind.queue.size", this, DnaWriteBehind::getQueueSize).register(registry);
+        Gauge.builder("mutant.write-behind.pending", pending, Map::size).register(registry);
+        FunctionCounter.builder("mutant.write-behind.batches", batchesWritten, LongAdder::sum).register(registry);
+        FunctionCounter.builder("mutant.write-behind.records", recordsWritten, LongAdder::sum).register(registry);
+        FunctionCounter.builder("mutant.write-behind.caller-writes", callerWrites, LongAdder::sum).register(registry);
+        FunctionCounter.builder("mutant.write-behind.failed", failedRecords, LongAdder::sum).register(registry);
+    }
+
+    private void drainLoop() {
+        List<Dna> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                // Poll con timeout para notar close() sin interrumpir un INSERT en curso
+                Dna first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // Espera hasta linger a que se junte un batch completo
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < batchSize) {
+                    if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    Dna next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Dna> batch) {
+        try {
+            insertWithRetries(batch);
+        } catch (RuntimeException e) {
+            // No debería pasar (insertWithRetries ya captura), pero el writer no puede morir
+            log.error("Error inesperado al persistir {} registros de ADN", batch.size(), e);
+        } finally {
+            batch.forEach(dna -> pending.remove(dna.getDnaHash()));
+        }
+    }
+
+    private void insertWithRetries(List<Dna> batch) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                insert(batch);
+                return;
+            } catch (RuntimeException e) {
+                if (attempt == WRITE_ATTEMPTS) {
+                    log.error("No se pudieron persistir {} registros de ADN después de {} intentos; se descartan",
+                            batch.size(), attempt, e);
+                    failedRecords.add(batch.size());
+                    batch.forEach(this::revertCount);
+                    return;
+                }
+                log.warn("No se pudieron persistir {} registros de ADN (intento {}): {}",
+                        batch.size(), attempt, e.toString());
+                if (!backoff(attempt)) {
+                    // Interrumpido: se intenta una última vez sin esperar
+                    attempt = WRITE_ATTEMPTS - 1;
+                }
+            }
+        }
+    }
+
+    private static boolean backoff(int attempt) {
+        try {
+            Thread.sleep(RETRY_BACKOFF_MILLIS * attempt);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // Un DuplicateKeyException se resuelve acá; cualquier otra excepción del store sube
+    // a insertWithRetries
+    private void insert(List<Dna> batch) {
+        try {
+            int[] counts = verdictStore.insertAllIfAbsent(batch);
+            for (int i = 0; i < batch.size(); i++) {
+                if (i < counts.length && counts[i] == 0) {
+                    // Otro camino ya lo había insertado: no contarlo dos veces
+                    revertCount(batch.get(i));
+                }
+            }
+            batchesWritten.increment();
+            recordsWritten.add(batch.size());
+        } catch (DuplicateKeyException e) {
+            if (batch.size() == 1) {
+                // Insertado en paralelo por otro camino entre el NOT EXISTS y el INSERT
+                revertCount(batch.get(0));
+            } else {
+                // Se reintenta de a uno para no perder el resto del batch
+                batch.forEach(dna -> insertWithRetries(List.of(dna)));
+            }
+        }
+    }
+
+    private void revertCount(Dna dna) {
+        statsCounters.revertInsert(dna.isMutant());
+        if (statsRollups != null) {
+            statsRollups.revertInsert(dna);
+        }
+    }
+}
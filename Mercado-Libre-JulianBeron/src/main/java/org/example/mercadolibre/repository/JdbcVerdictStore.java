@@ -0,0 +1,94 @@
+package org.example.mercadolibre.repository;
+
+import org.example.mercadolibre.dna.DnaHash;
+import org.example.mercadolibre.entity.Dna;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+// VerdictStore con JDBC directo: sin EntityManager, contexto de persistencia ni
+// entidades en las lecturas (se mapea solo la columna is_mutant a un boolean).
+// Las sentencias son fijas, así el driver reutiliza el plan ya parseado (en H2, la
+// caché de consultas de cada sesión). Las escrituras son las de DnaRepositoryCustomImpl
+@Component
+@ConditionalOnProperty(name = "mutant.store", havingValue = "jdbc")
+public class JdbcVerdictStore implements VerdictStore {
+
+    private static final String FIND_VERDICT = "SELECT is_mutant FROM dna_records WHERE dna_hash = ?";
+    private static final String COUNT_BY_MUTANT = "SELECT COUNT(*) FROM dna_records WHERE is_mutant = ?";
+
+    // findVerdicts consulta de a bloques de este tamaño (WHERE dna_hash IN (?, ..., ?))
+    private static final int IN_CHUNK = 100;
+    private static final String FIND_VERDICTS_CHUNK = findVerdictsSql(IN_CHUNK);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DnaRepositoryCustomImpl writes;
+
+    public JdbcVerdictStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.writes = new DnaRepositoryCustomImpl(jdbcTemplate, transactionManager);
+    }
+
+    @Override
+    public Boolean findVerdict(DnaHash dnaHash) {
+        return jdbcTemplate.query(FIND_VERDICT,
+                ps -> ps.setBytes(1, dnaHash.toBytes()),
+                rs -> rs.next() ? rs.getBoolean(1) : null);
+    }
+
+    @Override
+    public List<DnaVerdict> findVerdicts(Collection<DnaHash> hashes) {
+        if (hashes.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<DnaHash> all = new ArrayList<>(hashes);
+        List<DnaVerdict> verdicts = new ArrayList<>(all.size());
+        for (int from = 0; from < all.size(); from += IN_CHUNK) {
+            List<DnaHash> chunk = all.subList(from, Math.min(from + IN_CHUNK, all.size()));
+            // Bloques completos con la misma sentencia; solo el último arma la suya
+            String sql = chunk.size() == IN_CHUNK ? FIND_VERDICTS_CHUNK : findVerdictsSql(chunk.size());
+            jdbcTemplate.query(sql, ps -> {
+                for (int i = 0; i < chunk.size(); i++) {
+                    ps.setBytes(i + 1, chunk.get(i).toBytes());
+                }
+            }, rs -> {
+                verdicts.add(new DnaVerdict(new DnaHash(rs.getBytes(1)), rs.getBoolean(2)));
+            });
+        }
+        return verdicts;
+    }
+
+    @Override
+    public boolean insertIfAbsent(Dna dna) {
+        return writes.insertIfAbsent(dna);
+    }
+
+    @Override
+    public int[] insertAllIfAbsent(List<Dna> records) {
+        return writes.insertAllIfAbsent(records);
+    }
+
+    @Override
+    public long countByIsMutant(boolean isMutant) {
+        Long count = jdbcTemplate.queryForObject(COUNT_BY_MUTANT, Long.class, isMutant);
+        return count != null ? count : 0;
+    }
+
+    @Override
+    public void forEachHash(Consumer<DnaHash> action) {
+        jdbcTemplate.query(DnaRepositoryCustomImpl.ALL_HASHES, rs -> {
+            action.accept(new DnaHash(rs.getBytes(1)));
+        });
+    }
+
+    private static String findVerdictsSql(int params) {
+        return "SELECT dna_hash, is_mutant FROM dna_records WHERE dna_hash IN (?" + ", ?".repeat(params - 1) + ")";
+    }
+}
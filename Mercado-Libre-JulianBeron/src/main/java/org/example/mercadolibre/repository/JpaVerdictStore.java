@@ -0,0 +1,52 @@
+package org.example.mercadolibre.repository;
+
+import org.example.mercadolibre.dna.DnaHash;
+import org.example.mercadolibre.entity.Dna;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+// VerdictStore sobre el repositorio JPA (las escrituras ya van por DnaRepositoryCustomImpl)
+@Component
+@ConditionalOnProperty(name = "mutant.store", havingValue = "jpa", matchIfMissing = true)
+public class JpaVerdictStore implements VerdictStore {
+
+    private final DnaRepository dnaRepository;
+
+    public JpaVerdictStore(DnaRepository dnaRepository) {
+        this.dnaRepository = dnaRepository;
+    }
+
+    @Override
+    public Boolean findVerdict(DnaHash dnaHash) {
+        return dnaRepository.findByDnaHash(dnaHash).map(Dna::isMutant).orElse(null);
+    }
+
+    @Override
+    public List<DnaVerdict> findVerdicts(Collection<DnaHash> hashes) {
+        return dnaRepository.findVerdicts(hashes);
+    }
+
+    @Override
+    public boolean insertIfAbsent(Dna dna) {
+        return dnaRepository.insertIfAbsent(dna);
+    }
+
+    @Override
+    public int[] insertAllIfAbsent(List<Dna> records) {
+        return dnaRepository.insertAllIfAbsent(records);
+    }
+
+    @Override
+    public long countByIsMutant(boolean isMutant) {
+        return dnaRepository.countByIsMutant(isMutant);
+    }
+
+    @Override
+    public void forEachHash(Consumer<DnaHash> action) {
+        dnaRepository.forEachHash(action);
+    }
+}
@@ -0,0 +1,257 @@
+package org.example.mercadolibre.repository;
+
+import org.example.mercadolibre.dna.DnaHash;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+// Tabla hash -> veredicto fuera del heap (ByteBuffer.allocateDirect), con
+// direccionamiento abierto y sondeo lineal. Cada slot ocupa 8 + keyBytes bytes:
+//   [cabecera long][hash de keyBytes bytes]
+// La cabecera es 0 si el slot está libre; si no, bit 0 = ocupado, bit 1 = mutante
+// y los 32 bits altos repiten parte del hash para descartar colisiones sin comparar
+// la clave completa. Para el GC son unos pocos objetos, tenga las entradas que tenga.
+// Las lecturas no toman locks: el writer copia la clave y recién después publica la
+// cabecera con setRelease (y el lector la lee con getAcquire). Las escrituras se
+// serializan con un lock; al pasar el factor de carga la tabla se duplica y se
+// publica la nueva, la vieja la libera el GC. No hay borrados
+public class OffHeapVerdictIndex {
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final VarHandle KEY_LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private static final long OCCUPIED = 1;
+    private static final long MUTANT = 2;
+
+    private static final int HEADER_BYTES = Long.BYTES;
+
+    private final int keyBytes;
+    private final int slotBytes;
+    private final double maxLoadFactor;
+    private final int maxCapacity;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile Table table;
+    private volatile long mutantCount;
+    private volatile long humanCount;
+    private volatile long resizes;
+
+    private record Table(ByteBuffer slots, int capacity) {
+
+        int mask() {
+            return capacity - 1;
+        }
+    }
+
+    // initialEntries: entradas que entran sin agrandar la tabla
+    public OffHeapVerdictIndex(int keyBytes, int initialEntries, double maxLoadFactor) {
+        // Los primeros 8 bytes eligen el slot y los 8 siguientes dan la marca de la cabecera
+        if (keyBytes < 2 * Long.BYTES || keyBytes % Long.BYTES != 0) {
+            throw new IllegalArgumentException("La clave debe tener 16 bytes o más, en múltiplos de 8: " + keyBytes);
+        }
+        if (maxLoadFactor <= 0 || maxLoadFactor >= 1) {
+            throw new IllegalArgumentException("El factor de carga debe estar entre 0 y 1: " + maxLoadFactor);
+        }
+        this.keyBytes = keyBytes;
+        this.slotBytes = HEADER_BYTES + keyBytes;
+        this.maxLoadFactor = maxLoadFactor;
+        // Un ByteBuffer se indexa con int: la tabla no puede pasar de 2 GB
+        this.maxCapacity = Integer.highestOneBit(Integer.MAX_VALUE / slotBytes);
+        this.table = allocate(Math.min(maxCapacity, capacityFor(Math.max(initialEntries, 1))));
+    }
+
+    // Veredicto guardado para el hash, o null si no está. Sin locks
+    public Boolean get(DnaHash dnaHash) {
+        byte[] key = checkKey(dnaHash);
+        Table current = table;
+        while (true) {
+            long header = find(current, key);
+            if (header != 0) {
+                return (header & MUTANT) != 0;
+            }
+            // Si en el medio se agrandó la tabla, la clave pudo entrar solo en la nueva
+            Table latest = table;
+            if (latest == current) {
+                return null;
+            }
+            current = latest;
+        }
+    }
+
+    // Agrega el hash si no estaba. Devuelve false si ya existía (con cualquier veredicto)
+    public boolean putIfAbsent(DnaHash dnaHash, boolean mutant) {
+        byte[] key = checkKey(dnaHash);
+        writeLock.lock();
+        try {
+            Table current = table;
+            if (find(current, key) != 0) {
+                return false;
+            }
+            if (size() + 1 > current.capacity() * maxLoadFactor) {
+                current = resize(current);
+            }
+            insert(current, key, mutant);
+            if (mutant) {
+                mutantCount++;
+            } else {
+                humanCount++;
+            }
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Agranda la tabla de una vez para que entren entries entradas (p. ej. antes de
+    // cargar un volumen conocido), en lugar de duplicarla varias veces en el camino
+    public void reserve(long entries) {
+        writeLock.lock();
+        try {
+            int capacity = capacityFor((int) Math.min(entries, Integer.MAX_VALUE));
+            Table current = table;
+            if (capacity > current.capacity()) {
+                rehash(current, capacity);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Recorre las claves de la tabla actual (las que se agreguen mientras tanto pueden
+    // quedar afuera)
+    public void forEachKey(Consumer<DnaHash> action) {
+        Table current = table;
+        for (int slot = 0; slot < current.capacity(); slot++) {
+            int offset = slot * slotBytes;
+            if ((long) LONGS.getAcquire(current.slots(), offset) != 0) {
+                byte[] key = new byte[keyBytes];
+                current.slots().get(offset + HEADER_BYTES, key);
+                action.accept(new DnaHash(key));
+            }
+        }
+    }
+
+    public long count(boolean mutant) {
+        return mutant ? mutantCount : humanCount;
+    }
+
+    public long size() {
+        return mutantCount + humanCount;
+    }
+
+    public int capacity() {
+        return table.capacity();
+    }
+
+    public double loadFactor() {
+        Table current = table;
+        return (double) size() / current.capacity();
+    }
+
+    public long resizes() {
+        return resizes;
+    }
+
+    // Memoria directa reservada por la tabla actual
+    public long offHeapBytes() {
+        return (long) table.capacity() * slotBytes;
+    }
+
+    public int keyBytes() {
+        return keyBytes;
+    }
+
+    private byte[] checkKey(DnaHash dnaHash) {
+        byte[] key = dnaHash.toBytes();
+        if (key.length != keyBytes) {
+            throw new IllegalArgumentException(
+                    "El hash tiene " + key.length + " bytes y el índice espera " + keyBytes);
+        }
+        return key;
+    }
+
+    // Cabecera del slot con la clave, o 0 si no está
+    private long find(Table t, byte[] key) {
+        long tag = tag(key);
+        int mask = t.mask();
+        for (int slot = slotOf(key, mask); ; slot = (slot + 1) & mask) {
+            int offset = slot * slotBytes;
+            long header = (long) LONGS.getAcquire(t.slots(), offset);
+            if (header == 0) {
+                return 0;
+            }
+            if ((header & ~(OCCUPIED | MUTANT)) == tag && keyEquals(t.slots(), offset + HEADER_BYTES, key)) {
+                return header;
+            }
+        }
+    }
+
+    // Solo con el lock tomado, en una tabla con lugar libre
+    private void insert(Table t, byte[] key, boolean mutant) {
+        int mask = t.mask();
+        int slot = slotOf(key, mask);
+        while ((long) LONGS.getAcquire(t.slots(), slot * slotBytes) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        int offset = slot * slotBytes;
+        t.slots().put(offset + HEADER_BYTES, key);
+        LONGS.setRelease(t.slots(), offset, tag(key) | OCCUPIED | (mutant ? MUTANT : 0));
+    }
+
+    private Table resize(Table old) {
+        if (old.capacity() >= maxCapacity) {
+            throw new IllegalStateException("El índice off-heap llegó a su capacidad máxima: " + maxCapacity);
+        }
+        return rehash(old, old.capacity() * 2);
+    }
+
+    private Table rehash(Table old, int capacity) {
+        Table grown = allocate(capacity);
+        byte[] key = new byte[keyBytes];
+        for (int slot = 0; slot < old.capacity(); slot++) {
+            int offset = slot * slotBytes;
+            long header = (long) LONGS.getAcquire(old.slots(), offset);
+            if (header != 0) {
+                old.slots().get(offset + HEADER_BYTES, key);
+                insert(grown, key, (header & MUTANT) != 0);
+            }
+        }
+        table = grown;
+        resizes++;
+        return grown;
+    }
+
+    private Table allocate(int capacity) {
+        return new Table(ByteBuffer.allocateDirect(capacity * slotBytes).order(ByteOrder.nativeOrder()), capacity);
+    }
+
+    // Menor potencia de 2 que aloja las entradas sin pasar el factor de carga
+    private int capacityFor(int entries) {
+        long needed = (long) Math.ceil(entries / maxLoadFactor);
+        return needed >= maxCapacity ? maxCapacity : Math.max(2, Integer.highestOneBit((int) needed - 1) << 1);
+    }
+
+    private boolean keyEquals(ByteBuffer slots, int offset, byte[] key) {
+        for (int i = 0; i < keyBytes; i += Long.BYTES) {
+            if ((long) LONGS.get(slots, offset + i) != (long) KEY_LONGS.get(key, i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Las claves ya son hashes (SHA-256 o Murmur3): alcanza con tomar sus bytes
+    private static int slotOf(byte[] key, int mask) {
+        long bits = (long) KEY_LONGS.get(key, 0);
+        return (int) (bits ^ (bits >>> 32)) & mask;
+    }
+
+    private static long tag(byte[] key) {
+        return (long) KEY_LONGS.get(key, Long.BYTES) & 0xFFFFFFFF00000000L;
+    }
+}
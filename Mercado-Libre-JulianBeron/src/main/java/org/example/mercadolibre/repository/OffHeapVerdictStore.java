@@ -0,0 +1,127 @@
+package org.example.mercadolibre.repository;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import org.example.mercadolibre.dna.DnaFingerprinter;
+import org.example.mercadolibre.dna.DnaHash;
+import org.example.mercadolibre.entity.Dna;
+import org.example.mercadolibre.stats.StatsRollups;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+// VerdictStore en memoria directa (mutant.store=off-heap): la deduplicación y los
+// totales de /stats salen de un OffHeapVerdictIndex, sin filas ni índices de H2 en el
+// heap. Guarda solo hash y veredicto (la secuencia empaquetada no se conserva). Sin
+// VerdictLog no sobrevive a un reinicio, igual que la H2 en memoria; con él cada
+// registro nuevo se agrega al log y el índice se reconstruye al arrancar
+@Component
+@ConditionalOnProperty(name = "mutant.store", havingValue = "off-heap")
+public class OffHeapVerdictStore implements VerdictStore, MeterBinder {
+
+    private final OffHeapVerdictIndex index;
+
+    // Persistencia en disco (opcional, mutant.store.log.enabled)
+    @Autowired(required = false)
+    private VerdictLog verdictLog;
+
+    // Totales por minuto/hora de /stats (opcional, mutant.stats.rollups.enabled)
+    @Autowired(required = false)
+    private StatsRollups statsRollups;
+
+    // Serializa las inserciones con log (las escrituras del log ya van de a una)
+    private final ReentrantLock logLock = new ReentrantLock();
+
+    public OffHeapVerdictStore(DnaFingerprinter fingerprinter,
+                               @Value("${mutant.store.off-heap.initial-entries:65536}") int initialEntries,
+                               @Value("${mutant.store.off-heap.max-load-factor:0.7}") double maxLoadFactor) {
+        this.index = new OffHeapVerdictIndex(fingerprinter.getHashLength(), initialEntries, maxLoadFactor);
+    }
+
+    // Antes que StatsCounters lea los totales: el índice arranca con lo que hay en el log.
+    // stats_rollups (en la H2 en memoria) arranca vacía: se reconstruye con los mismos
+    // registros, que guardan N y timestamp
+    @PostConstruct
+    public void recover() {
+        if (verdictLog != null) {
+            boolean rebuildRollups = statsRollups != null && statsRollups.isEmpty();
+            verdictLog.recover(index, rebuildRollups ? statsRollups::recordRecovered : null);
+        }
+    }
+
+    @Override
+    public Boolean findVerdict(DnaHash dnaHash) {
+        return index.get(dnaHash);
+    }
+
+    @Override
+    public List<DnaVerdict> findVerdicts(Collection<DnaHash> hashes) {
+        List<DnaVerdict> verdicts = new ArrayList<>(hashes.size());
+        for (DnaHash dnaHash : hashes) {
+            Boolean verdict = index.get(dnaHash);
+            if (verdict != null) {
+                verdicts.add(new DnaVerdict(dnaHash, verdict));
+            }
+        }
+        return verdicts;
+    }
+
+    @Override
+    public boolean insertIfAbsent(Dna dna) {
+        if (verdictLog == null) {
+            return index.putIfAbsent(dna.getDnaHash(), dna.isMutant());
+        }
+        // Primero el log y después el índice (que no tiene borrados): si append falla, el
+        // ADN no queda publicado como guardado. El lock evita que dos requests con el
+        // mismo hash lo agreguen dos veces al log
+        logLock.lock();
+        try {
+            if (index.get(dna.getDnaHash()) != null) {
+                return false;
+            }
+            verdictLog.append(dna);
+            return index.putIfAbsent(dna.getDnaHash(), dna.isMutant());
+        } finally {
+            logLock.unlock();
+        }
+    }
+
+    @Override
+    public int[] insertAllIfAbsent(List<Dna> records) {
+        int[] counts = new int[records.size()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = insertIfAbsent(records.get(i)) ? 1 : 0;
+        }
+        return counts;
+    }
+
+    @Override
+    public long countByIsMutant(boolean isMutant) {
+        return index.count(isMutant);
+    }
+
+    @Override
+    public void forEachHash(Consumer<DnaHash> action) {
+        index.forEachKey(action);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("mutant.store.off-heap.entries", index, OffHeapVerdictIndex::size).register(registry);
+        Gauge.builder("mutant.store.off-heap.capacity", index, OffHeapVerdictIndex::capacity).register(registry);
+        Gauge.builder("mutant.store.off-heap.load-factor", index, OffHeapVerdictIndex::loadFactor).register(registry);
+        Gauge.builder("mutant.store.off-heap.bytes", index, OffHeapVerdictIndex::offHeapBytes)
+                .baseUnit("bytes").register(registry);
+        FunctionCounter.builder("mutant.store.off-heap.resizes", index, OffHeapVerdictIndex::resizes).register(registry);
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.mercadolibre.repository;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.example.mercadolibre.dna.DnaHash;
+import org.example.mercadolibre.entity.Dna;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+// Acceso R2DBC a dna_records para el perfil reactive. Es la misma tabla (y la misma
+// base H2) que usa DnaRepository, con el mismo INSERT condicional
+@Repository
+@Profile("reactive")
+public class ReactiveDnaStore {
+
+    private static final String INSERT_IF_ABSENT =
+            "INSERT INTO dna_records (dna_hash, is_mutant, created_at, dna_size, dna_sequence) " +
+            "SELECT :hash, :mutant, :createdAt, :size, :sequence " +
+            "WHERE NOT EXISTS (SELECT 1 FROM dna_records WHERE dna_hash = :hash)";
+
+    private static final String FIND_VERDICT = "SELECT is_mutant FROM dna_records WHERE dna_hash = :hash";
+
+    private final DatabaseClient client;
+
+    public ReactiveDnaStore(ConnectionFactory connectionFactory) {
+        this.client = DatabaseClient.create(connectionFactory);
+    }
+
+    // true si el registro se insertó, false si el hash ya estaba
+    public Mono<Boolean> insertIfAbsent(Dna dna) {
+        return client.sql(INSERT_IF_ABSENT)
+                .bind("hash", dna.getDnaHash().toBytes())
+                .bind("mutant", dna.isMutant())
+                .bind("createdAt", dna.getCreatedAt())
+                .bind("size", dna.getDnaSize())
+                .bind("sequence", dna.getDnaSequence())
+                .fetch()
+                .rowsUpdated()
+                .map(rows -> rows == 1)
+                // Otra transacción insertó el mismo hash entre el NOT EXISTS y el INSERT
+                .onErrorResume(DuplicateKeyException.class, e -> Mono.just(false));
+    }
+
+    // Veredicto guardado para el hash, o vacío si no existe
+    public Mono<Boolean> findVerdict(DnaHash dnaHash) {
+        return client.sql(FIND_VERDICT)
+                .bind("hash", dnaHash.toBytes())
+                .map(row -> row.get(0, Boolean.class))
+                .one();
+    }
+}
@@ -0,0 +1,477 @@
+package org.example.mercadolibre.repository;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.example.mercadolibre.dna.DnaFingerprinter;
+import org.example.mercadolibre.dna.DnaHash;
+import org.example.mercadolibre.entity.Dna;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+// Log de veredictos en disco, solo de agregado (mutant.store.log.enabled, con
+// mutant.store=off-heap): cada ADN nuevo se escribe como un registro de tamaño fijo
+//   [estado][relleno x3][N int][timestamp long][hash][crc32c int]
+// en un segmento mapeado en memoria (verdicts-00000001.log, ...). El registro queda en
+// el page cache al volver el request y un hilo lo baja a disco (fsync) cada
+// fsync-interval; se pierde a lo sumo ese intervalo si se cae la máquina, no el proceso.
+// Al arrancar, recover recorre los segmentos en orden y reconstruye el índice off-heap
+// (y con él los totales de /stats). Un segmento lleno se cierra y se abre el siguiente.
+// Si los hashes repetidos pasan de compact-ratio (p. ej. segmentos de varios nodos
+// juntados en un mismo directorio), se reescriben los segmentos con un registro por hash
+@Component
+@ConditionalOnProperty(name = "mutant.store.log.enabled", havingValue = "true")
+public class VerdictLog implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(VerdictLog.class);
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("verdicts-(\\d{8})\\.log");
+
+    // Cabecera de segmento: [magic][largo del hash][largo del registro][reservado]
+    private static final int MAGIC = 0x4D564C31;
+    private static final int SEGMENT_HEADER_BYTES = 16;
+
+    private static final int SIZE_OFFSET = 4;
+    private static final int TIMESTAMP_OFFSET = 8;
+    private static final int HASH_OFFSET = 16;
+
+    // Estado 0: slot todavía sin escribir (el archivo se crea con ceros)
+    private static final byte EMPTY = 0;
+    private static final byte HUMAN = 1;
+    private static final byte MUTANT = 2;
+
+    private final Path dir;
+    private final int keyBytes;
+    private final int recordBytes;
+    private final int segmentRecords;
+    private final double compactRatio;
+    private final Duration fsyncInterval;
+
+    // Protege los segmentos, el de escritura y el CRC
+    private final ReentrantLock lock = new ReentrantLock();
+    private final CRC32C crc = new CRC32C();
+    private final List<Segment> segments = new ArrayList<>();
+    private volatile Segment current;
+    private int lastSegmentNumber;
+    private ScheduledExecutorService fsyncExecutor;
+    // Después de close no se aceptan más registros: abrirían un segmento que nadie cierra
+    private boolean closed;
+
+    private final LongAdder appends = new LongAdder();
+    private final LongAdder fsyncs = new LongAdder();
+    private final LongAdder fsyncFailures = new LongAdder();
+    private volatile Recovery lastRecovery;
+    private volatile long compactions;
+
+    // Resultado de recover: registros cargados, hashes repetidos, registros rotos
+    // (escritura a medias antes de una caída) y si hubo compactación
+    public record Recovery(long records, long duplicates, long torn, boolean compacted, long millis) {
+    }
+
+    private static final class Segment {
+        final Path path;
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        // Offset del próximo registro
+        int position = SEGMENT_HEADER_BYTES;
+
+        Segment(Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+
+    // Recibe cada registro que recover carga en el índice (p. ej. para reconstruir los
+    // totales por minuto de /stats)
+    @FunctionalInterface
+    public interface RecoveryListener {
+        void recovered(boolean mutant, int dnaSize, long createdAtMillis);
+    }
+
+    @FunctionalInterface
+    private interface RecordVisitor {
+        void visit(Segment segment, int offset, DnaHash dnaHash, boolean mutant);
+    }
+
+    @Autowired
+    public VerdictLog(DnaFingerprinter fingerprinter,
+                      @Value("${mutant.store.log.dir:data/verdict-log}") Path dir,
+                      @Value("${mutant.store.log.segment-records:1000000}") int segmentRecords,
+                      @Value("${mutant.store.log.fsync-interval:1s}") Duration fsyncInterval,
+                      @Value("${mutant.store.log.compact-ratio:0.2}") double compactRatio) {
+        this(dir, fingerprinter.getHashLength(), segmentRecords, fsyncInterval, compactRatio);
+    }
+
+    public VerdictLog(Path dir, int keyBytes, int segmentRecords, Duration fsyncInterval, double compactRatio) {
+        if (segmentRecords <= 0) {
+            throw new IllegalArgumentException("mutant.store.log.segment-records debe ser mayor a 0");
+        }
+        this.recordBytes = HASH_OFFSET + keyBytes + Integer.BYTES;
+        // Un segmento se mapea entero y FileChannel.map no acepta más de Integer.MAX_VALUE bytes
+        long maxSegmentRecords = (Integer.MAX_VALUE - SEGMENT_HEADER_BYTES) / recordBytes;
+        if (segmentRecords > maxSegmentRecords) {
+            throw new IllegalArgumentException("mutant.store.log.segment-records no puede pasar de "
+                    + maxSegmentRecords + " con hashes de " + keyBytes + " bytes");
+        }
+        this.dir = dir;
+        this.keyBytes = keyBytes;
+        this.segmentRecords = segmentRecords;
+        this.fsyncInterval = fsyncInterval;
+        this.compactRatio = compactRatio;
+    }
+
+    // Carga en el índice los registros de todos los segmentos y deja el log listo para
+    // agregar. Vale el primer registro de cada hash. Se llama una vez, antes de append
+    public Recovery recover(OffHeapVerdictIndex index) {
+        return recover(index, null);
+    }
+
+    // Igual, y además avisa a listener (si no es null) cada registro cargado
+    public Recovery recover(OffHeapVerdictIndex index, RecoveryListener listener) {
+        long start = System.nanoTime();
+        lock.lock();
+        try {
+            Files.createDirectories(dir);
+            List<Path> paths = listSegments();
+            // Los segmentos cerrados están llenos: el índice se agranda una sola vez
+            if (paths.size() > 1) {
+                index.reserve((long) (paths.size() - 1) * segmentRecords);
+            }
+
+            long[] counts = new long[2];
+            long torn = 0;
+            for (Path path : paths) {
+                Segment segment = open(path);
+                segments.add(segment);
+                if (!scan(segment, (s, offset, dnaHash, mutant) -> {
+                    if (!index.putIfAbsent(dnaHash, mutant)) {
+                        counts[1]++;
+                        return;
+                    }
+                    counts[0]++;
+                    if (listener != null) {
+                        listener.recovered(mutant, s.buffer.getInt(offset + SIZE_OFFSET),
+                                s.buffer.getLong(offset + TIMESTAMP_OFFSET));
+                    }
+                })) {
+                    torn++;
+                    // Lo que siga al registro roto no es confiable: se borra para no
+                    // leerlo como válido cuando se escriba encima
+                    clear(segment, segment.position);
+                }
+            }
+
+            boolean compacted = false;
+            long scanned = counts[0] + counts[1];
+            if (counts[1] > 0 && counts[1] >= compactRatio * scanned) {
+                compact();
+                compacted = true;
+            }
+            if (segments.isEmpty()) {
+                segments.add(create(++lastSegmentNumber));
+            }
+            current = segments.get(segments.size() - 1);
+            startFsync();
+
+            Recovery recovery = new Recovery(counts[0], counts[1], torn, compacted,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            lastRecovery = recovery;
+            log.info("Log de veredictos: {} registros recuperados de {} segmentos en {} ms ({} repetidos, {} rotos{})",
+                    recovery.records(), segments.size(), recovery.millis(), recovery.duplicates(), recovery.torn(),
+                    compacted ? ", compactado" : "");
+            return recovery;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo recuperar el log de veredictos en " + dir, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Agrega el registro de un ADN nuevo (ya deduplicado por el índice)
+    public void append(Dna dna) {
+        byte[] key = dna.getDnaHash().toBytes();
+        if (key.length != keyBytes) {
+            throw new IllegalArgumentException("El hash tiene " + key.length + " bytes y el log espera " + keyBytes);
+        }
+        long timestamp = dna.getCreatedAt() != null
+                ? dna.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : System.currentTimeMillis();
+
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("El log de veredictos ya está cerrado");
+            }
+            if (lastRecovery == null) {
+                throw new IllegalStateException("El log de veredictos se usa antes de recover");
+            }
+            Segment segment = writable();
+            int offset = segment.position;
+            MappedByteBuffer buffer = segment.buffer;
+            buffer.put(offset, dna.isMutant() ? MUTANT : HUMAN);
+            buffer.putInt(offset + SIZE_OFFSET, dna.getDnaSize());
+            buffer.putLong(offset + TIMESTAMP_OFFSET, timestamp);
+            buffer.put(offset + HASH_OFFSET, key);
+            buffer.putInt(offset + HASH_OFFSET + keyBytes, checksum(buffer, offset));
+            segment.position = offset + recordBytes;
+            appends.increment();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir un segmento nuevo del log de veredictos", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Baja a disco lo escrito en el segmento actual (también cada fsync-interval)
+    public void sync() {
+        Segment segment = current;
+        if (segment != null) {
+            segment.buffer.force();
+            fsyncs.increment();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (fsyncExecutor != null) {
+            fsyncExecutor.shutdownNow();
+        }
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            sync();
+            for (Segment segment : segments) {
+                closeQuietly(segment);
+            }
+            segments.clear();
+            current = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Recovery getLastRecovery() {
+        return lastRecovery;
+    }
+
+    public int getSegmentCount() {
+        lock.lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("mutant.store.log.appends", appends, LongAdder::sum).register(registry);
+        FunctionCounter.builder("mutant.store.log.fsyncs", fsyncs, LongAdder::sum).register(registry);
+        FunctionCounter.builder("mutant.store.log.fsync-failures", fsyncFailures, LongAdder::sum).register(registry);
+        FunctionCounter.builder("mutant.store.log.compactions", this, verdictLog -> verdictLog.compactions)
+                .register(registry);
+        Gauge.builder("mutant.store.log.segments", this, VerdictLog::getSegmentCount).register(registry);
+        Gauge.builder("mutant.store.log.recovered", this,
+                verdictLog -> verdictLog.lastRecovery != null ? verdictLog.lastRecovery.records() : 0)
+                .register(registry);
+        Gauge.builder("mutant.store.log.recovery-time", this,
+                verdictLog -> verdictLog.lastRecovery != null ? verdictLog.lastRecovery.millis() : 0)
+                .baseUnit("milliseconds").register(registry);
+    }
+
+    // Recorre los registros válidos del segmento y deja su posición después del último.
+    // Devuelve false si se cortó en un registro roto (CRC que no coincide)
+    private boolean scan(Segment segment, RecordVisitor visitor) {
+        MappedByteBuffer buffer = segment.buffer;
+        int limit = buffer.capacity() - recordBytes;
+        int offset = SEGMENT_HEADER_BYTES;
+        try {
+            for (; offset <= limit; offset += recordBytes) {
+                byte state = buffer.get(offset);
+                if (state == EMPTY) {
+                    return true;
+                }
+                if ((state != HUMAN && state != MUTANT)
+                        || buffer.getInt(offset + HASH_OFFSET + keyBytes) != checksum(buffer, offset)) {
+                    return false;
+                }
+                byte[] key = new byte[keyBytes];
+                buffer.get(offset + HASH_OFFSET, key);
+                visitor.visit(segment, offset, new DnaHash(key), state == MUTANT);
+            }
+            return true;
+        } finally {
+            segment.position = offset;
+        }
+    }
+
+    // Reescribe todos los segmentos con solo el primer registro de cada hash (y sin los
+    // rotos) en segmentos nuevos, y recién después borra los viejos. Si el proceso se
+    // cae a mitad de camino quedan ambos: el próximo arranque ve repetidos y compacta
+    private void compact() throws IOException {
+        List<Segment> old = new ArrayList<>(segments);
+        segments.clear();
+        current = null;
+
+        long total = (long) old.size() * segmentRecords;
+        OffHeapVerdictIndex seen = new OffHeapVerdictIndex(keyBytes, (int) Math.min(total, 1 << 20), 0.7);
+        for (Segment segment : old) {
+            scan(segment, (s, offset, dnaHash, mutant) -> {
+                if (seen.putIfAbsent(dnaHash, mutant)) {
+                    copy(s, offset);
+                }
+            });
+        }
+        for (Segment segment : segments) {
+            segment.buffer.force();
+        }
+        for (Segment segment : old) {
+            closeQuietly(segment);
+            Files.delete(segment.path);
+        }
+        compactions++;
+    }
+
+    // Copia tal cual un registro válido (el CRC no depende de su posición)
+    private void copy(Segment from, int offset) {
+        try {
+            Segment to = writable();
+            to.buffer.put(to.position, from.buffer, offset, recordBytes);
+            to.position += recordBytes;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir un segmento compactado", e);
+        }
+    }
+
+    // Segmento con lugar para un registro más; si el actual está lleno, lo baja a
+    // disco y abre el siguiente
+    private Segment writable() throws IOException {
+        Segment segment = current;
+        if (segment != null && segment.position + recordBytes <= segment.buffer.capacity()) {
+            return segment;
+        }
+        if (segment != null) {
+            segment.buffer.force();
+        }
+        segment = create(++lastSegmentNumber);
+        segments.add(segment);
+        current = segment;
+        return segment;
+    }
+
+    private Segment create(int number) throws IOException {
+        Path path = dir.resolve(String.format("verdicts-%08d.log", number));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        // El archivo se extiende con ceros: todos los registros empiezan EMPTY
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                SEGMENT_HEADER_BYTES + (long) segmentRecords * recordBytes);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, keyBytes);
+        buffer.putInt(8, recordBytes);
+        return new Segment(path, channel, buffer);
+    }
+
+    private Segment open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        if (buffer.capacity() < SEGMENT_HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            channel.close();
+            throw new IllegalStateException("Segmento de log inválido: " + path);
+        }
+        if (buffer.getInt(4) != keyBytes || buffer.getInt(8) != recordBytes) {
+            channel.close();
+            throw new IllegalStateException("El segmento " + path + " tiene hashes de " + buffer.getInt(4)
+                    + " bytes y mutant.fingerprint.algorithm produce " + keyBytes);
+        }
+        return new Segment(path, channel, buffer);
+    }
+
+    // Segmentos existentes ordenados por número
+    private List<Path> listSegments() throws IOException {
+        List<Path> paths = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.forEach(path -> {
+                Matcher matcher = SEGMENT_NAME.matcher(path.getFileName().toString());
+                if (matcher.matches()) {
+                    paths.add(path);
+                    lastSegmentNumber = Math.max(lastSegmentNumber, Integer.parseInt(matcher.group(1)));
+                }
+            });
+        }
+        paths.sort(null);
+        return paths;
+    }
+
+    private void clear(Segment segment, int from) {
+        for (int offset = from; offset < segment.buffer.capacity(); offset++) {
+            segment.buffer.put(offset, (byte) 0);
+        }
+    }
+
+    private int checksum(MappedByteBuffer buffer, int offset) {
+        crc.reset();
+        crc.update(buffer.slice(offset, HASH_OFFSET + keyBytes));
+        return (int) crc.getValue();
+    }
+
+    private void startFsync() {
+        if (fsyncExecutor != null || fsyncInterval.isZero()) {
+            return;
+        }
+        fsyncExecutor = Executors.newSingleThreadScheduledExecutor(
+                runnable -> Thread.ofPlatform().daemon().name("verdict-log-fsync").unstarted(runnable));
+        long millis = fsyncInterval.toMillis();
+        fsyncExecutor.scheduleWithFixedDelay(this::scheduledSync, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    // Una excepción que se escapa cancela en silencio la tarea programada: sin esto, un
+    // error de E/S pasajero dejaría el log sin fsync hasta el próximo reinicio
+    private void scheduledSync() {
+        try {
+            sync();
+        } catch (RuntimeException e) {
+            fsyncFailures.increment();
+            log.warn("Falló el fsync del log de veredictos; se reintenta en {}", fsyncInterval, e);
+        }
+    }
+
+    private static void closeQuietly(Segment segment) {
+        try {
+            segment.channel.close();
+        } catch (IOException e) {
+            log.warn("No se pudo cerrar el segmento {}", segment.path, e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.mercadolibre.repository;
+
+import org.example.mercadolibre.dna.DnaHash;
+import org.example.mercadolibre.entity.Dna;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Operaciones sobre dna_records que usa el camino caliente (MutantService, write-behind
+// y StatsCounters). Implementaciones: JpaVerdictStore (por defecto, vía DnaRepository),
+// JdbcVerdictStore (mutant.store=jdbc o perfil jdbc, JDBC directo sin Hibernate) y
+// OffHeapVerdictStore (mutant.store=off-heap, tabla fuera del heap en lugar de H2)
+public interface VerdictStore {
+
+    // Veredicto guardado para el hash, o null si no existe
+    Boolean findVerdict(DnaHash dnaHash);
+
+    // Veredictos de los hashes que existen (los que no, no aparecen)
+    List<DnaVerdict> findVerdicts(Collection<DnaHash> hashes);
+
+    // Inserta el registro si su hash no existe, en una sola sentencia. Devuelve false
+    // si ya estaba, incluso si otra transacción lo insertó en paralelo
+    boolean insertIfAbsent(Dna dna);
+
+    // Inserta en un solo batch los registros cuyo hash no exista todavía. Devuelve,
+    // por registro, 1 si se insertó y 0 si ya estaba (o se repite en el batch)
+    int[] insertAllIfAbsent(List<Dna> records);
+
+    long countByIsMutant(boolean isMutant);
+
+    // Recorre todos los hashes guardados (p. ej. para cargar KnownHashFilter al arrancar)
+    void forEachHash(Consumer<DnaHash> action);
+}
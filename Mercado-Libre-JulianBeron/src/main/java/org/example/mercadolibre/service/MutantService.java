@@ -1,136 +1,372 @@
 package org.example.mercadolibre.service;
 
+import org.example.mercadolibre.cache.KnownHashFilter;
+import org.example.mercadolibre.cache.SingleFlight;
+import org.example.mercadolibre.cache.VerdictCache;
+import org.example.mercadolibre.detector.ByteMatrixDetector;
+import org.example.mercadolibre.detector.MutantDetector;
+import org.example.mercadolibre.dna.DnaCodec;
+import org.example.mercadolibre.dna.DnaFingerprinter;
+import org.example.mercadolibre.dna.DnaHash;
+import org.example.mercadolibre.dna.DnaMatrix;
+import org.example.mercadolibre.dna.PreparedDna;
+import org.example.mercadolibre.dto.DnaResult;
 import org.example.mercadolibre.entity.Dna;
-import org.example.mercadolibre.repository.DnaRepository;
+import org.example.mercadolibre.repository.DnaVerdict;
+import org.example.mercadolibre.repository.DnaWriteBehind;
+import org.example.mercadolibre.repository.VerdictStore;
+import org.example.mercadolibre.stats.StatsCounters;
+import org.example.mercadolibre.stats.StatsRollups;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.util.Arrays;
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 @Service
 public class MutantService {
 
     @Autowired
-    private DnaRepository dnaRepository;
+    private VerdictStore verdictStore;
+
+    // Estrategia de detección (ver DetectorConfig); por defecto la matriz de bytes
+    @Autowired
+    private MutantDetector mutantDetector = new ByteMatrixDetector();
+
+    // Hash que identifica cada ADN (mutant.fingerprint.algorithm); por defecto SHA-256
+    @Autowired
+    private DnaFingerprinter fingerprinter = new DnaFingerprinter();
+
+    // Caché de veredictos (opcional, mutant.cache.enabled)
+    @Autowired(required = false)
+    private VerdictCache verdictCache;
+
+    // Filtro de Bloom de hashes guardados (opcional, mutant.bloom.enabled)
+    @Autowired(required = false)
+    private KnownHashFilter knownHashes;
+
+    // Agrupa análisis concurrentes del mismo hash (opcional, mutant.single-flight.enabled)
+    @Autowired(required = false)
+    private SingleFlight singleFlight;
+
+    // Pool para analizar batches en paralelo (ver BatchConfig); sin él, secuencial
+    @Autowired(required = false)
+    private ForkJoinPool batchPool;
+
+    // Totales incrementales para /stats; sin ellos se cuentan en el repositorio
+    @Autowired(required = false)
+    private StatsCounters statsCounters;
+
+    // Totales por minuto/hora para /stats por rango (opcional, mutant.stats.rollups.enabled)
+    @Autowired(required = false)
+    private StatsRollups statsRollups;
+
+    // Persistencia diferida (opcional, mutant.write-behind.enabled)
+    @Autowired(required = false)
+    private DnaWriteBehind writeBehind;
 
     public boolean isMutant(String[] dna) {
         if (dna == null || dna.length < 4) {
             return false;
         }
 
-        int n = dna.length;
+        // Solo el veredicto: se valida y codifica sin calcular la huella
+        return mutantDetector.isMutant(validMatrix(DnaFingerprinter.encode(dna)));
+    }
 
-        for (String row : dna) {
-            if (row == null || row.length() != n || !row.matches("[ATCG]+")) {
-                throw new IllegalArgumentException("ADN inválido: debe ser una matriz NxN con solo caracteres A, T, C, G");
-            }
+    // Valida, codifica y hashea el ADN en una pasada (DnaFingerprinter.prepare) y lo
+    // analiza. Un ADN inválido vuelve como DnaResult.error, sin lanzar excepciones
+    public DnaResult analyze(String[] dna) {
+        PreparedDna prepared = fingerprinter.prepare(dna);
+        if (!prepared.isValid()) {
+            return DnaResult.error(prepared.error());
         }
+        return DnaResult.verdict(analyzeMatrix(prepared.hash(), prepared.matrix()));
+    }
 
-        int sequencesFound = 0;
+    // Como analyze, pero un ADN inválido lanza IllegalArgumentException
+    public boolean analyzeDna(String[] dna) {
+        PreparedDna prepared = fingerprinter.prepare(dna);
+        return analyzeMatrix(prepared.hash(), validMatrix(prepared));
+    }
 
-        // Horizontales
-        for (int i = 0; i < n; i++) {
-            for (int j = 0; j <= n - 4; j++) {
-                if (hasSequence(dna[i].substring(j, j + 4))) {
-                    sequencesFound++;
-                    if (sequencesFound > 1) return true;
-                }
-            }
+    // ADN recibido en formato binario (N y bases a 2 bits, ver DnaCodec): se decodifica
+    // directo a la matriz, sin crear Strings, y tiene la misma huella que en JSON. Los
+    // bytes recibidos (con los bits sobrantes del último en 0) son los que se guardan
+    public boolean analyzePacked(int size, byte[] packed) {
+        DnaCodec.clearPadding(size, packed);
+        DnaMatrix matrix = DnaCodec.unpack(size, packed);
+        return analyzeMatrix(fingerprinter.fingerprint(matrix), matrix, packed);
+    }
+
+    private static DnaMatrix validMatrix(PreparedDna prepared) {
+        if (!prepared.isValid()) {
+            throw new IllegalArgumentException(prepared.error());
         }
+        return prepared.matrix();
+    }
 
-        // Verticales
-        for (int j = 0; j < n; j++) {
-            for (int i = 0; i <= n - 4; i++) {
-                StringBuilder vertical = new StringBuilder();
-                for (int k = 0; k < 4; k++) {
-                    vertical.append(dna[i + k].charAt(j));
-                }
-                if (hasSequence(vertical.toString())) {
-                    sequencesFound++;
-                    if (sequencesFound > 1) return true;
-                }
+    private boolean analyzeMatrix(DnaHash dnaHash, DnaMatrix matrix) {
+        return analyzeMatrix(dnaHash, matrix, null);
+    }
+
+    // packed: la matriz ya empaquetada (formato binario), o null para empaquetarla al guardar
+    private boolean analyzeMatrix(DnaHash dnaHash, DnaMatrix matrix, byte[] packed) {
+        if (verdictCache != null) {
+            Boolean cached = verdictCache.get(dnaHash);
+            if (cached != null) {
+                return cached;
             }
         }
 
-        // Diagonales descendentes ↘
-        for (int i = 0; i <= n - 4; i++) {
-            for (int j = 0; j <= n - 4; j++) {
-                StringBuilder diagonal = new StringBuilder();
-                for (int k = 0; k < 4; k++) {
-                    diagonal.append(dna[i + k].charAt(j + k));
+        if (singleFlight != null) {
+            return singleFlight.execute(dnaHash, () -> analyzeAndStore(dnaHash, matrix, packed));
+        }
+        return analyzeAndStore(dnaHash, matrix, packed);
+    }
+
+    private boolean analyzeAndStore(DnaHash dnaHash, DnaMatrix matrix, byte[] packed) {
+        Boolean stored = findQueuedOrStored(dnaHash);
+        if (stored != null) {
+            return stored;
+        }
+
+        // Un ADN nuevo (sin consulta previa, o descartado por el filtro) cuesta un solo
+        // INSERT condicional.
+        // El empaquetado a 2 bits solo se hace para registros nuevos (y no hace falta si
+        // el ADN llegó empaquetado)
+        boolean isMutant = matrix.getSize() >= 4 && mutantDetector.isMutant(matrix);
+
+        byte[] sequence = packed != null ? packed : DnaCodec.pack(matrix);
+        return store(new Dna(dnaHash, isMutant, matrix.getSize(), sequence));
+    }
+
+    // Inicia el análisis de un ADN que llega fila por fila (POST /mutant/rows)
+    public StreamingAnalysis startStreaming() {
+        return new StreamingAnalysis(fingerprinter);
+    }
+
+    // Valida la matriz completa recibida en streaming y la guarda igual que analyzeDna.
+    // Devuelve el veredicto (el guardado, si el ADN ya estaba)
+    public boolean completeStreaming(StreamingAnalysis analysis) {
+        DnaHash dnaHash = analysis.finish();
+
+        Boolean known = verdictCache != null ? verdictCache.get(dnaHash) : null;
+        if (known == null) {
+            known = findQueuedOrStored(dnaHash);
+        }
+        if (known != null) {
+            return known;
+        }
+        return store(new Dna(dnaHash, analysis.isMutant(), analysis.getSize(), analysis.getPackedSequence()));
+    }
+
+    // Veredicto ya guardado, buscado antes de analizar. Con el filtro de hashes solo se
+    // consulta la base si el ADN puede estar (un ADN nuevo va directo a detectar e
+    // insertar, uno repetido no se vuelve a detectar). Sin filtro ni write-behind no se
+    // consulta: el INSERT condicional resuelve el duplicado. Con write-behind el request
+    // no escribe: se busca también en la cola para no encolar (y contar) de nuevo un registro
+    private Boolean findQueuedOrStored(DnaHash dnaHash) {
+        Boolean stored = writeBehind != null ? writeBehind.findPending(dnaHash) : null;
+        if (stored == null) {
+            if (knownHashes != null) {
+                if (!knownHashes.mightContain(dnaHash)) {
+                    return null;
                 }
-                if (hasSequence(diagonal.toString())) {
-                    sequencesFound++;
-                    if (sequencesFound > 1) return true;
+                stored = verdictStore.findVerdict(dnaHash);
+                if (stored == null) {
+                    knownHashes.recordFalsePositives(1);
                 }
+            } else if (writeBehind != null) {
+                stored = verdictStore.findVerdict(dnaHash);
             }
         }
+        if (stored != null) {
+            cacheVerdict(dnaHash, stored);
+        }
+        return stored;
+    }
 
-        // Diagonales ascendentes ↗
-        for (int i = 3; i < n; i++) {
-            for (int j = 0; j <= n - 4; j++) {
-                StringBuilder diagonal = new StringBuilder();
-                for (int k = 0; k < 4; k++) {
-                    diagonal.append(dna[i - k].charAt(j + k));
-                }
-                if (hasSequence(diagonal.toString())) {
-                    sequencesFound++;
-                    if (sequencesFound > 1) return true;
-                }
+    // Guarda un registro nuevo y devuelve su veredicto
+    private boolean store(Dna dnaEntity) {
+        DnaHash dnaHash = dnaEntity.getDnaHash();
+        boolean isMutant = dnaEntity.isMutant();
+        rememberHash(dnaHash);
+        if (writeBehind != null) {
+            // Solo cuenta quien encoló el registro; si resulta duplicado el writer lo descuenta
+            if (writeBehind.submit(dnaEntity)) {
+                recordInsert(dnaEntity);
+            }
+        } else if (verdictStore.insertIfAbsent(dnaEntity)) {
+            recordInsert(dnaEntity);
+        } else {
+            // Ya estaba, o lo insertó otro request en paralelo: vale el veredicto guardado
+            Boolean stored = verdictStore.findVerdict(dnaHash);
+            if (stored != null) {
+                isMutant = stored;
             }
         }
+        cacheVerdict(dnaHash, isMutant);
 
-        return false;
+        return isMutant;
     }
 
-    private boolean hasSequence(String sequence) {
-        if (sequence.length() != 4) return false;
-        char first = sequence.charAt(0);
-        return sequence.equals(String.valueOf(first).repeat(4));
-    }
+    // Analiza varios ADN (ya validados como DnaRequest) en una sola pasada: los hashes
+    // que no están en caché se buscan con una consulta IN, los nuevos se analizan en
+    // paralelo y se insertan en un solo batch. Devuelve un resultado por ADN, en orden
+    public List<DnaResult> analyzeBatch(List<String[]> batch) {
+        int size = batch.size();
+        PreparedDna[] prepared = new PreparedDna[size];
+        DnaHash[] hashes = new DnaHash[size];
 
-    public boolean analyzeDna(String[] dna) {
-        String dnaHash = generateHash(dna);
+        inParallel(size, i -> {
+            prepared[i] = fingerprinter.prepare(batch.get(i));
+            hashes[i] = prepared[i].hash();
+        });
 
-        Optional<Dna> existingDna = dnaRepository.findByDnaHash(dnaHash);
-        if (existingDna.isPresent()) {
-            return existingDna.get().isMutant();
+        // Veredictos ya conocidos: caché, cola de write-behind y base
+        Map<DnaHash, Boolean> known = new HashMap<>();
+        Set<DnaHash> lookup = new HashSet<>();
+        for (DnaHash dnaHash : hashes) {
+            if (dnaHash == null) {
+                continue;
+            }
+            Boolean verdict = verdictCache != null ? verdictCache.get(dnaHash) : null;
+            if (verdict == null && writeBehind != null) {
+                verdict = writeBehind.findPending(dnaHash);
+            }
+            if (verdict != null) {
+                known.put(dnaHash, verdict);
+            } else if (knownHashes == null || knownHashes.mightContain(dnaHash)) {
+                // Los que el filtro descarta seguro son nuevos: no se buscan
+                lookup.add(dnaHash);
+            }
+        }
+        if (!lookup.isEmpty()) {
+            List<DnaVerdict> found = verdictStore.findVerdicts(lookup);
+            for (DnaVerdict stored : found) {
+                known.put(stored.dnaHash(), stored.mutant());
+                cacheVerdict(stored.dnaHash(), stored.mutant());
+            }
+            if (knownHashes != null) {
+                knownHashes.recordFalsePositives(lookup.size() - found.size());
+            }
         }
 
-        boolean isMutant = isMutant(dna);
+        // Detección en paralelo de los que faltan (known solo se lee en esta fase)
+        Dna[] analyzed = new Dna[size];
+        inParallel(size, i -> {
+            if (!prepared[i].isValid() || known.containsKey(hashes[i])) {
+                return;
+            }
+            DnaMatrix matrix = prepared[i].matrix();
+            analyzed[i] = new Dna(hashes[i], mutantDetector.isMutant(matrix), matrix.getSize(), DnaCodec.pack(matrix));
+        });
 
-        Dna dnaEntity = new Dna(dnaHash, isMutant, Arrays.toString(dna));
-        dnaRepository.save(dnaEntity);
+        // Un registro por hash aunque el ADN se repita dentro del batch
+        Map<DnaHash, Dna> fresh = new LinkedHashMap<>();
+        for (Dna dna : analyzed) {
+            if (dna != null) {
+                fresh.putIfAbsent(dna.getDnaHash(), dna);
+            }
+        }
+        if (!fresh.isEmpty()) {
+            known.putAll(store(new ArrayList<>(fresh.values())));
+        }
 
-        return isMutant;
+        List<DnaResult> response = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            response.add(prepared[i].isValid()
+                ? DnaResult.verdict(known.get(hashes[i]))
+                : DnaResult.error(prepared[i].error()));
+        }
+        return response;
     }
 
-    public org.example.mercadolibre.dto.StatsResponse getStats() {
-        long countMutant = dnaRepository.countByIsMutant(true);
-        long countHuman = dnaRepository.countByIsMutant(false);
+    // Persiste los registros nuevos de un batch y devuelve el veredicto de cada hash
+    private Map<DnaHash, Boolean> store(List<Dna> records) {
+        Map<DnaHash, Boolean> verdicts = new HashMap<>();
+        List<DnaHash> conflicts = new ArrayList<>();
+        for (Dna dna : records) {
+            rememberHash(dna.getDnaHash());
+        }
 
-        return new org.example.mercadolibre.dto.StatsResponse(countMutant, countHuman);
+        if (writeBehind != null) {
+            for (Dna dna : records) {
+                if (writeBehind.submit(dna)) {
+                    recordInsert(dna);
+                }
+            }
+        } else {
+            int[] counts = verdictStore.insertAllIfAbsent(records);
+            for (int i = 0; i < records.size(); i++) {
+                if (counts[i] == 1) {
+                    recordInsert(records.get(i));
+                } else {
+                    conflicts.add(records.get(i).getDnaHash());
+                }
+            }
+        }
+        for (Dna dna : records) {
+            verdicts.put(dna.getDnaHash(), dna.isMutant());
+        }
+        // Insertados en paralelo por otro request: vale el veredicto guardado
+        if (!conflicts.isEmpty()) {
+            for (DnaVerdict stored : verdictStore.findVerdicts(conflicts)) {
+                verdicts.put(stored.dnaHash(), stored.mutant());
+            }
+        }
+        verdicts.forEach(this::cacheVerdict);
+        return verdicts;
     }
 
-    // Genera hash SHA-256 del ADN para identificarlo de forma única
-    private String generateHash(String[] dna) {
-        try {
-            String dnaString = String.join("", dna);
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(dnaString.getBytes());
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) hexString.append('0');
-                hexString.append(hex);
-            }
-            return hexString.toString();
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("Error al generar hash del ADN", e);
+    private void inParallel(int size, IntConsumer task) {
+        if (batchPool == null || size < 2) {
+            IntStream.range(0, size).forEach(task);
+            return;
+        }
+        batchPool.submit(() -> IntStream.range(0, size).parallel().forEach(task)).join();
+    }
+
+    private void recordInsert(Dna dna) {
+        if (statsCounters != null) {
+            statsCounters.recordInsert(dna.isMutant());
+        }
+        if (statsRollups != null) {
+            statsRollups.recordInsert(dna);
+        }
+    }
+
+    // Después de guardar (o encolar) el hash existe, se haya insertado o no
+    private void rememberHash(DnaHash dnaHash) {
+        if (knownHashes != null) {
+            knownHashes.put(dnaHash);
+        }
+    }
+
+    private void cacheVerdict(DnaHash dnaHash, boolean isMutant) {
+        if (verdictCache != null) {
+            verdictCache.put(dnaHash, isMutant);
         }
     }
-}
 
+    public org.example.mercadolibre.dto.StatsResponse getStats() {
+        if (statsCounters != null) {
+            return new org.example.mercadolibre.dto.StatsResponse(
+                    statsCounters.getMutantCount(), statsCounters.getHumanCount());
+        }
+
+        long countMutant = verdictStore.countByIsMutant(true);
+        long countHuman = verdictStore.countByIsMutant(false);
+
+        return new org.example.mercadolibre.dto.StatsResponse(countMutant, countHuman);
+    }
+}
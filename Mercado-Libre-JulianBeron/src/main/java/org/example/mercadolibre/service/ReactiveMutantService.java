@@ -0,0 +1,132 @@
+package org.example.mercadolibre.service;
+
+import org.example.mercadolibre.cache.KnownHashFilter;
+import org.example.mercadolibre.cache.VerdictCache;
+import org.example.mercadolibre.detector.ByteMatrixDetector;
+import org.example.mercadolibre.detector.MutantDetector;
+import org.example.mercadolibre.dna.DnaCodec;
+import org.example.mercadolibre.dna.DnaFingerprinter;
+import org.example.mercadolibre.dna.DnaHash;
+import org.example.mercadolibre.dna.DnaMatrix;
+import org.example.mercadolibre.dna.PreparedDna;
+import org.example.mercadolibre.dto.DnaResult;
+import org.example.mercadolibre.dto.StatsResponse;
+import org.example.mercadolibre.entity.Dna;
+import org.example.mercadolibre.repository.ReactiveDnaStore;
+import org.example.mercadolibre.stats.StatsCounters;
+import org.example.mercadolibre.stats.StatsRollups;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+// Variante no bloqueante de MutantService (perfil reactive). Comparte el mismo núcleo:
+// DnaFingerprinter.prepare, el MutantDetector configurado, la caché de veredictos y
+// los contadores de /stats. La parte de CPU corre en detectionScheduler y la
+// persistencia va por R2DBC
+@Service
+@Profile("reactive")
+public class ReactiveMutantService {
+
+    @Autowired
+    private ReactiveDnaStore dnaStore;
+
+    @Autowired
+    private MutantDetector mutantDetector = new ByteMatrixDetector();
+
+    @Autowired
+    private DnaFingerprinter fingerprinter = new DnaFingerprinter();
+
+    @Autowired(required = false)
+    private VerdictCache verdictCache;
+
+    @Autowired(required = false)
+    private KnownHashFilter knownHashes;
+
+    @Autowired
+    private StatsCounters statsCounters;
+
+    @Autowired(required = false)
+    private StatsRollups statsRollups;
+
+    @Autowired
+    private Scheduler detectionScheduler;
+
+    // Mismo resultado que MutantService.analyze: veredicto o error de validación
+    public Mono<DnaResult> analyze(String[] dna) {
+        return Mono.fromCallable(() -> fingerprinter.prepare(dna))
+                .subscribeOn(detectionScheduler)
+                .flatMap(prepared -> prepared.isValid()
+                        ? analyzeMatrix(prepared).map(DnaResult::verdict)
+                        : Mono.just(DnaResult.error(prepared.error())));
+    }
+
+    private Mono<Boolean> analyzeMatrix(PreparedDna prepared) {
+        DnaHash dnaHash = prepared.hash();
+        if (verdictCache != null) {
+            Boolean cached = verdictCache.get(dnaHash);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+        }
+
+        if (knownHashes == null || !knownHashes.mightContain(dnaHash)) {
+            return detectAndStore(prepared);
+        }
+        // Puede estar guardado: se busca antes de detectar; si no estaba (falso
+        // positivo) se detecta igual que un ADN nuevo
+        return dnaStore.findVerdict(dnaHash)
+                .doOnNext(verdict -> cacheVerdict(dnaHash, verdict))
+                .switchIfEmpty(Mono.defer(() -> {
+                    knownHashes.recordFalsePositives(1);
+                    return detectAndStore(prepared);
+                }));
+    }
+
+    private Mono<Boolean> detectAndStore(PreparedDna prepared) {
+        DnaHash dnaHash = prepared.hash();
+        // La detección corre siempre en detectionScheduler, aunque se llegue desde el
+        // hilo de R2DBC que resolvió la búsqueda: nunca en el event loop
+        return Mono.fromCallable(() -> {
+                    DnaMatrix matrix = prepared.matrix();
+                    boolean isMutant = mutantDetector.isMutant(matrix);
+                    return new Dna(dnaHash, isMutant, matrix.getSize(), DnaCodec.pack(matrix));
+                })
+                .subscribeOn(detectionScheduler)
+                .flatMap(this::store)
+                .doOnNext(verdict -> cacheVerdict(dnaHash, verdict));
+    }
+
+    private Mono<Boolean> store(Dna dnaEntity) {
+        DnaHash dnaHash = dnaEntity.getDnaHash();
+        boolean isMutant = dnaEntity.isMutant();
+        if (knownHashes != null) {
+            knownHashes.put(dnaHash);
+        }
+
+        return dnaStore.insertIfAbsent(dnaEntity)
+                .flatMap(inserted -> {
+                    if (inserted) {
+                        statsCounters.recordInsert(isMutant);
+                        if (statsRollups != null) {
+                            statsRollups.recordInsert(dnaEntity);
+                        }
+                        return Mono.just(isMutant);
+                    }
+                    // Ya estaba, o lo insertó otro request en paralelo: vale el veredicto guardado
+                    return dnaStore.findVerdict(dnaHash).defaultIfEmpty(isMutant);
+                });
+    }
+
+    private void cacheVerdict(DnaHash dnaHash, boolean verdict) {
+        if (verdictCache != null) {
+            verdictCache.put(dnaHash, verdict);
+        }
+    }
+
+    // Los totales están en memoria (StatsCounters): /stats no toca la base
+    public StatsResponse getStats() {
+        return new StatsResponse(statsCounters.getMutantCount(), statsCounters.getHumanCount());
+    }
+}
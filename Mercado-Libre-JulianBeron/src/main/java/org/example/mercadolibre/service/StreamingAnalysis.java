@@ -0,0 +1,50 @@
+package org.example.mercadolibre.service;
+
+import org.example.mercadolibre.detector.StreamingDetector;
+import org.example.mercadolibre.dna.DnaCodec;
+import org.example.mercadolibre.dna.DnaFingerprinter;
+import org.example.mercadolibre.dna.DnaHash;
+
+// Análisis de un ADN que se recibe fila por fila: detección con ventana móvil, huella
+// incremental y secuencia empaquetada a 2 bits para guardarla al final
+// (ver MutantService.startStreaming / completeStreaming)
+public class StreamingAnalysis {
+
+    private final DnaFingerprinter fingerprinter;
+    private final StreamingDetector detector = new StreamingDetector();
+    private final DnaCodec.Packer packer = new DnaCodec.Packer();
+    private DnaFingerprinter.RowFingerprint fingerprint;
+
+    StreamingAnalysis(DnaFingerprinter fingerprinter) {
+        this.fingerprinter = fingerprinter;
+    }
+
+    // Devuelve true apenas se sabe que es mutante; lanza IllegalArgumentException si la fila es inválida
+    public boolean acceptRow(String row) {
+        boolean mutant = detector.acceptRow(row);
+        if (fingerprint == null) {
+            fingerprint = fingerprinter.begin(row.length());
+        }
+        fingerprint.addRow(row);
+        packer.append(detector.lastRow());
+        return mutant;
+    }
+
+    public boolean isMutant() {
+        return detector.isMutant();
+    }
+
+    int getSize() {
+        return detector.getSize();
+    }
+
+    byte[] getPackedSequence() {
+        return packer.toByteArray();
+    }
+
+    // Valida la matriz completa y devuelve su huella
+    DnaHash finish() {
+        detector.finish();
+        return fingerprint.finish();
+    }
+}
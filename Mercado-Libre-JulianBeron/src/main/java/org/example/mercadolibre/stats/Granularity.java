@@ -0,0 +1,37 @@
+package org.example.mercadolibre.stats;
+
+import java.util.Locale;
+
+// Tamaño de los buckets de stats_rollups y de GET /stats?granularity=
+public enum Granularity {
+    MINUTE(60),
+    HOUR(3600);
+
+    private final int seconds;
+
+    Granularity(int seconds) {
+        this.seconds = seconds;
+    }
+
+    public int seconds() {
+        return seconds;
+    }
+
+    // Inicio (epoch en segundos) del bucket que contiene el instante
+    public long floor(long epochSecond) {
+        return Math.floorDiv(epochSecond, seconds) * seconds;
+    }
+
+    public String label() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static Granularity parse(String value) {
+        for (Granularity granularity : values()) {
+            if (granularity.label().equalsIgnoreCase(value.trim())) {
+                return granularity;
+            }
+        }
+        throw new IllegalArgumentException("granularity debe ser minute u hour");
+    }
+}
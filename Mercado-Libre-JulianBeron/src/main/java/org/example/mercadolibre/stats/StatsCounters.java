@@ -0,0 +1,64 @@
+package org.example.mercadolibre.stats;
+
+import jakarta.annotation.PostConstruct;
+import org.example.mercadolibre.repository.VerdictStore;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Totales de ADN mutante/humano mantenidos en memoria. Se cargan una vez desde el
+// repositorio al arrancar y después se incrementan con cada registro nuevo, así
+// GET /stats no ejecuta COUNT sobre dna_records
+@Component
+public class StatsCounters {
+
+    private final VerdictStore verdictStore;
+
+    private final LongAdder mutants = new LongAdder();
+    private final LongAdder humans = new LongAdder();
+
+    // ReentrantLock y no synchronized: las consultas JDBC dentro de un bloque
+    // synchronized fijarían el hilo virtual a su hilo portador (pinning)
+    private final ReentrantLock resyncLock = new ReentrantLock();
+
+    public StatsCounters(VerdictStore verdictStore) {
+        this.verdictStore = verdictStore;
+    }
+
+    // Vuelve a leer los totales del repositorio (al arrancar, o si se borraron
+    // registros por fuera del servicio)
+    @PostConstruct
+    public void resync() {
+        resyncLock.lock();
+        try {
+            long countMutant = verdictStore.countByIsMutant(true);
+            long countHuman = verdictStore.countByIsMutant(false);
+            mutants.reset();
+            mutants.add(countMutant);
+            humans.reset();
+            humans.add(countHuman);
+        } finally {
+            resyncLock.unlock();
+        }
+    }
+
+    // Llamar solo cuando el registro se insertó realmente (no para duplicados)
+    public void recordInsert(boolean isMutant) {
+        (isMutant ? mutants : humans).increment();
+    }
+
+    // Deshace un recordInsert cuyo registro resultó duplicado o no se pudo persistir
+    // (escritura diferida)
+    public void revertInsert(boolean isMutant) {
+        (isMutant ? mutants : humans).decrement();
+    }
+
+    public long getMutantCount() {
+        return mutants.sum();
+    }
+
+    public long getHumanCount() {
+        return humans.sum();
+    }
+}
@@ -0,0 +1,489 @@
+package org.example.mercadolibre.stats;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.mercadolibre.dto.StatsRangeResponse;
+import org.example.mercadolibre.entity.Dna;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Totales por minuto y por hora (mutantes, humanos e histograma de N) para GET /stats con
+// from/to/granularity. Cada registro nuevo suma en memoria a su minuto, con LongAdder y sin
+// locks; un hilo vuelca lo acumulado cada flush-interval a stats_rollups, sumándolo a la
+// fila del minuto y a la de su hora. Un rango se responde leyendo una fila por bucket (por
+// la clave primaria), sin recorrer dna_records: el costo depende de los buckets, no de los
+// registros. La consulta no vuelca: a las filas les suma lo que sigue en memoria. Las filas
+// por minuto se borran después de minute-retention; las por hora quedan
+@Component
+@ConditionalOnProperty(name = "mutant.stats.rollups.enabled", havingValue = "true", matchIfMissing = true)
+public class StatsRollups implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(StatsRollups.class);
+
+    // Histograma de N por potencias de 2: [4, 8), [8, 16), ... y el último abierto
+    static final int SIZE_BUCKETS = 16;
+    private static final int MIN_SIZE_BITS = 2;
+
+    private static final String SELECT_ROW =
+            "SELECT mutant_count, human_count, size_histogram FROM stats_rollups " +
+            "WHERE bucket_seconds = ? AND bucket_start = ?";
+    private static final String INSERT_ROW =
+            "INSERT INTO stats_rollups (bucket_seconds, bucket_start, mutant_count, human_count, size_histogram) " +
+            "VALUES (?, ?, ?, ?, ?)";
+    private static final String UPDATE_ROW =
+            "UPDATE stats_rollups SET mutant_count = ?, human_count = ?, size_histogram = ? " +
+            "WHERE bucket_seconds = ? AND bucket_start = ?";
+    private static final String SELECT_RANGE =
+            "SELECT bucket_start, mutant_count, human_count, size_histogram FROM stats_rollups " +
+            "WHERE bucket_seconds = ? AND bucket_start >= ? AND bucket_start < ? ORDER BY bucket_start";
+    private static final String DELETE_BEFORE =
+            "DELETE FROM stats_rollups WHERE bucket_seconds = ? AND bucket_start < ?";
+    private static final String SELECT_ANY = "SELECT 1 FROM stats_rollups LIMIT 1";
+
+    // Intentos de leer sin flushLock antes de esperar a que termine el flush
+    private static final int OPTIMISTIC_READS = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration flushInterval;
+    private final Duration minuteRetention;
+    private final int maxBuckets;
+
+    // Lo acumulado desde el último flush, por minuto (epoch en segundos)
+    private final ConcurrentHashMap<Long, Pending> pending = new ConcurrentHashMap<>();
+    // Minutos ya cerrados que se sacaron del mapa: un registro que tomó la entrada justo
+    // antes suma igual, y se vuelve a drenar en el flush siguiente
+    // (copy-on-write: lo recorren las consultas sin lock; son pocos minutos)
+    private final List<Map.Entry<Long, Pending>> retired = new CopyOnWriteArrayList<>();
+
+    // ReentrantLock y no synchronized: el flush hace JDBC (pinning con hilos virtuales)
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // Impar mientras un flush pasa conteos de memoria a la tabla: una consulta que vio
+    // cambiar la versión pudo contar un delta dos veces o ninguna, y se repite
+    private volatile long flushVersion;
+    private ScheduledExecutorService flushExecutor;
+
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder flushFailures = new LongAdder();
+    private final LongAdder rowsWritten = new LongAdder();
+
+    // Conteos a sumar en memoria, uno por minuto
+    private static final class Pending {
+        final LongAdder mutants = new LongAdder();
+        final LongAdder humans = new LongAdder();
+        final AtomicLongArray sizes = new AtomicLongArray(SIZE_BUCKETS);
+
+        void add(boolean isMutant, int sizeBucket, long delta) {
+            (isMutant ? mutants : humans).add(delta);
+            sizes.addAndGet(sizeBucket, delta);
+        }
+
+        void add(Counts counts) {
+            mutants.add(counts.mutants);
+            humans.add(counts.humans);
+            for (int i = 0; i < SIZE_BUCKETS; i++) {
+                sizes.addAndGet(i, counts.sizes[i]);
+            }
+        }
+
+        // Lo acumulado hasta ahora, sin ponerlo en 0 (consultas)
+        Counts snapshot() {
+            Counts counts = new Counts();
+            counts.mutants = mutants.sum();
+            counts.humans = humans.sum();
+            for (int i = 0; i < SIZE_BUCKETS; i++) {
+                counts.sizes[i] = sizes.get(i);
+            }
+            return counts;
+        }
+
+        // Cada contador se pone en 0 con getAndSet: lo que se suma en paralelo queda
+        // para el próximo flush, no se pierde
+        Counts drain() {
+            Counts counts = new Counts();
+            counts.mutants = mutants.sumThenReset();
+            counts.humans = humans.sumThenReset();
+            for (int i = 0; i < SIZE_BUCKETS; i++) {
+                counts.sizes[i] = sizes.getAndSet(i, 0);
+            }
+            return counts;
+        }
+    }
+
+    // Totales de un bucket (o un delta), sin sincronización
+    static final class Counts {
+        long mutants;
+        long humans;
+        final long[] sizes = new long[SIZE_BUCKETS];
+
+        void add(Counts other) {
+            mutants += other.mutants;
+            humans += other.humans;
+            for (int i = 0; i < SIZE_BUCKETS; i++) {
+                sizes[i] += other.sizes[i];
+            }
+        }
+
+        boolean isEmpty() {
+            if (mutants != 0 || humans != 0) {
+                return false;
+            }
+            for (long size : sizes) {
+                if (size != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Un long por rango de N, sin los ceros del final
+        byte[] encodeSizes() {
+            int length = SIZE_BUCKETS;
+            while (length > 0 && sizes[length - 1] == 0) {
+                length--;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(length * Long.BYTES);
+            for (int i = 0; i < length; i++) {
+                buffer.putLong(sizes[i]);
+            }
+            return buffer.array();
+        }
+
+        static Counts of(long mutants, long humans, byte[] encodedSizes) {
+            Counts counts = new Counts();
+            counts.mutants = mutants;
+            counts.humans = humans;
+            if (encodedSizes != null) {
+                ByteBuffer buffer = ByteBuffer.wrap(encodedSizes);
+                for (int i = 0; i < SIZE_BUCKETS && buffer.remaining() >= Long.BYTES; i++) {
+                    counts.sizes[i] = buffer.getLong();
+                }
+            }
+            return counts;
+        }
+
+        Map<String, Long> sizeHistogram() {
+            Map<String, Long> histogram = new LinkedHashMap<>();
+            for (int i = 0; i < SIZE_BUCKETS; i++) {
+                if (sizes[i] != 0) {
+                    histogram.put(sizeLabel(i), sizes[i]);
+                }
+            }
+            return histogram;
+        }
+    }
+
+    @Autowired
+    public StatsRollups(JdbcTemplate jdbcTemplate,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${mutant.stats.rollups.flush-interval:5s}") Duration flushInterval,
+                        @Value("${mutant.stats.rollups.minute-retention:7d}") Duration minuteRetention,
+                        @Value("${mutant.stats.rollups.max-buckets:10080}") int maxBuckets) {
+        if (maxBuckets <= 0) {
+            throw new IllegalArgumentException("mutant.stats.rollups.max-buckets debe ser mayor a 0");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.flushInterval = flushInterval;
+        this.minuteRetention = minuteRetention;
+        this.maxBuckets = maxBuckets;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (flushExecutor != null || flushInterval.isZero()) {
+            return;
+        }
+        flushExecutor = Executors.newSingleThreadScheduledExecutor(
+                runnable -> Thread.ofPlatform().daemon().name("stats-rollups-flush").unstarted(runnable));
+        long millis = flushInterval.toMillis();
+        flushExecutor.scheduleWithFixedDelay(this::scheduledFlush, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    // Una excepción que se escapa cancela en silencio la tarea programada y no habría
+    // más flushes hasta reiniciar
+    private void scheduledFlush() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Falló el flush de stats_rollups; se reintenta en {}", flushInterval, e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (flushExecutor != null) {
+            flushExecutor.shutdownNow();
+        }
+        flush();
+    }
+
+    // Llamar solo cuando el registro se insertó realmente (igual que StatsCounters)
+    public void recordInsert(Dna dna) {
+        add(dna, 1);
+    }
+
+    // Deshace un recordInsert (write-behind que resultó duplicado o falló); resta en el
+    // minuto del registro aunque ese minuto ya se haya volcado
+    public void revertInsert(Dna dna) {
+        add(dna, -1);
+    }
+
+    // Un registro del log de veredictos leído al arrancar (perfil durable): stats_rollups
+    // está en la H2 en memoria y se reconstruye desde el log. Lo vuelca el flush programado
+    public void recordRecovered(boolean isMutant, int dnaSize, long createdAtMillis) {
+        add(Granularity.MINUTE.floor(Math.floorDiv(createdAtMillis, 1000)), isMutant, dnaSize, 1);
+    }
+
+    // Si la tabla no tiene filas (p. ej. recién creada): solo entonces tiene sentido
+    // reconstruirla, para no contar dos veces sobre una base persistente
+    public boolean isEmpty() {
+        return pending.isEmpty() && retired.isEmpty() && jdbcTemplate.queryForList(SELECT_ANY).isEmpty();
+    }
+
+    private void add(Dna dna, long delta) {
+        long minute = Granularity.MINUTE.floor(dna.getCreatedAt().atZone(ZoneId.systemDefault()).toEpochSecond());
+        add(minute, dna.isMutant(), dna.getDnaSize(), delta);
+    }
+
+    private void add(long minute, boolean isMutant, int dnaSize, long delta) {
+        Pending counts = pending.get(minute);
+        if (counts == null) {
+            counts = pending.computeIfAbsent(minute, key -> new Pending());
+        }
+        counts.add(isMutant, sizeBucket(dnaSize), delta);
+    }
+
+    // Suma lo acumulado a stats_rollups, en una transacción. Si falla, los conteos vuelven
+    // a memoria y se reintentan en el próximo flush
+    public void flush() {
+        flushLock.lock();
+        flushVersion++;
+        try {
+            long openMinute = Granularity.MINUTE.floor(Instant.now().getEpochSecond()) - Granularity.MINUTE.seconds();
+            Map<Long, Counts> minutes = new TreeMap<>();
+            List<Map.Entry<Long, Pending>> drained = new ArrayList<>(retired);
+            retired.clear();
+            pending.forEach((minute, counts) -> {
+                if (minute < openMinute && pending.remove(minute, counts)) {
+                    retired.add(Map.entry(minute, counts));
+                }
+                drained.add(Map.entry(minute, counts));
+            });
+            for (Map.Entry<Long, Pending> entry : drained) {
+                Counts delta = entry.getValue().drain();
+                if (!delta.isEmpty()) {
+                    minutes.computeIfAbsent(entry.getKey(), key -> new Counts()).add(delta);
+                }
+            }
+            if (minutes.isEmpty()) {
+                purge();
+                return;
+            }
+            Map<Long, Counts> hours = new TreeMap<>();
+            minutes.forEach((minute, delta) ->
+                    hours.computeIfAbsent(Granularity.HOUR.floor(minute), key -> new Counts()).add(delta));
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    minutes.forEach((minute, delta) -> merge(Granularity.MINUTE, minute, delta));
+                    hours.forEach((hour, delta) -> merge(Granularity.HOUR, hour, delta));
+                });
+                flushes.increment();
+                rowsWritten.add(minutes.size() + hours.size());
+            } catch (RuntimeException e) {
+                // DataAccessException o TransactionException (p. ej. sin conexión)
+                flushFailures.increment();
+                log.error("No se pudieron guardar los totales de {} minutos en stats_rollups", minutes.size(), e);
+                minutes.forEach(this::restore);
+                return;
+            }
+            purge();
+        } finally {
+            flushVersion++;
+            flushLock.unlock();
+        }
+    }
+
+    private void restore(long minute, Counts delta) {
+        pending.computeIfAbsent(minute, key -> new Pending()).add(delta);
+    }
+
+    // Suma el delta a la fila del bucket (la crea si no existe). Solo escribe el flush,
+    // con flushLock, así que leer y reescribir la fila no compite con nadie
+    private void merge(Granularity granularity, long start, Counts delta) {
+        List<Counts> rows = jdbcTemplate.query(SELECT_ROW,
+                (rs, rowNum) -> Counts.of(rs.getLong(1), rs.getLong(2), rs.getBytes(3)),
+                granularity.seconds(), start);
+        if (rows.isEmpty()) {
+            jdbcTemplate.update(INSERT_ROW, granularity.seconds(), start, delta.mutants, delta.humans,
+                    delta.encodeSizes());
+            return;
+        }
+        Counts total = rows.get(0);
+        total.add(delta);
+        jdbcTemplate.update(UPDATE_ROW, total.mutants, total.humans, total.encodeSizes(), granularity.seconds(), start);
+    }
+
+    private void purge() {
+        if (minuteRetention.isZero()) {
+            return;
+        }
+        long oldest = Instant.now().minus(minuteRetention).getEpochSecond();
+        try {
+            jdbcTemplate.update(DELETE_BEFORE, Granularity.MINUTE.seconds(), oldest);
+        } catch (DataAccessException e) {
+            log.warn("No se pudieron borrar los totales por minuto anteriores a {}", Instant.ofEpochSecond(oldest), e);
+        }
+    }
+
+    // GET /stats con from/to/granularity (ISO-8601). Sin to es ahora, sin from 24 horas
+    // antes de to y sin granularity por hora
+    public StatsRangeResponse query(String from, String to, String granularity) {
+        Granularity size = granularity == null ? Granularity.HOUR : Granularity.parse(granularity);
+        Instant end = to == null ? Instant.now() : parseInstant("to", to);
+        Instant start = from == null ? end.minus(Duration.ofDays(1)) : parseInstant("from", from);
+        return query(start, end, size);
+    }
+
+    // Totales de los buckets que empiezan en [from, to): from se redondea al inicio de su bucket
+    public StatsRangeResponse query(Instant from, Instant to, Granularity granularity) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("from debe ser anterior a to");
+        }
+        long first = granularity.floor(from.getEpochSecond());
+        long end = to.getEpochSecond() + (to.getNano() > 0 ? 1 : 0);
+        long bucketCount = Math.ceilDiv(end - first, granularity.seconds());
+        if (bucketCount > maxBuckets) {
+            throw new IllegalArgumentException("El rango pedido tiene " + bucketCount + " buckets; el máximo es " + maxBuckets);
+        }
+        // Sin flush: el flush programado es el único que escribe. Se leen las filas y se
+        // les suman los conteos en memoria; si un flush movió conteos en el medio, se repite
+        for (int attempt = 0; attempt < OPTIMISTIC_READS; attempt++) {
+            long version = flushVersion;
+            if ((version & 1) == 0) {
+                Map<Long, Counts> buckets = read(granularity, first, end);
+                if (flushVersion == version) {
+                    return response(to, granularity, first, buckets);
+                }
+            }
+            Thread.onSpinWait();
+        }
+        flushLock.lock();
+        try {
+            return response(to, granularity, first, read(granularity, first, end));
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Filas de stats_rollups en [first, end) más los minutos en memoria de ese rango (por
+    // minuto, sin los que el flush va a borrar por minute-retention)
+    private Map<Long, Counts> read(Granularity granularity, long first, long end) {
+        long from = granularity == Granularity.MINUTE && !minuteRetention.isZero()
+                ? Math.max(first, Instant.now().minus(minuteRetention).getEpochSecond())
+                : first;
+        Map<Long, Counts> buckets = new TreeMap<>();
+        for (Map.Entry<Long, Pending> entry : retired) {
+            addPending(buckets, granularity, from, end, entry.getKey(), entry.getValue());
+        }
+        pending.forEach((minute, counts) -> addPending(buckets, granularity, from, end, minute, counts));
+        jdbcTemplate.query(SELECT_RANGE, rs -> {
+            buckets.computeIfAbsent(rs.getLong(1), key -> new Counts())
+                    .add(Counts.of(rs.getLong(2), rs.getLong(3), rs.getBytes(4)));
+        }, granularity.seconds(), first, end);
+        return buckets;
+    }
+
+    private static void addPending(Map<Long, Counts> buckets, Granularity granularity, long first, long end,
+                                   long minute, Pending counts) {
+        long bucket = granularity.floor(minute);
+        if (bucket >= first && bucket < end) {
+            buckets.computeIfAbsent(bucket, key -> new Counts()).add(counts.snapshot());
+        }
+    }
+
+    private static StatsRangeResponse response(Instant to, Granularity granularity, long first,
+                                               Map<Long, Counts> buckets) {
+        Counts total = new Counts();
+        List<StatsRangeResponse.Bucket> rows = new ArrayList<>(buckets.size());
+        buckets.forEach((start, counts) -> {
+            if (counts.isEmpty()) {
+                return;
+            }
+            total.add(counts);
+            rows.add(new StatsRangeResponse.Bucket(Instant.ofEpochSecond(start),
+                    counts.mutants, counts.humans, counts.sizeHistogram()));
+        });
+        return new StatsRangeResponse(Instant.ofEpochSecond(first), to, granularity.label(),
+                total.mutants, total.humans, total.sizeHistogram(), rows);
+    }
+
+    // Borra los totales en memoria y en la tabla (tests)
+    public void clear() {
+        flushLock.lock();
+        try {
+            pending.clear();
+            retired.clear();
+            jdbcTemplate.update("DELETE FROM stats_rollups");
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private static Instant parseInstant(String name, String value) {
+        try {
+            return Instant.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(name + " debe ser un instante ISO-8601, por ejemplo 2024-01-01T00:00:00Z");
+        }
+    }
+
+    static int sizeBucket(int dnaSize) {
+        int bits = 31 - Integer.numberOfLeadingZeros(Math.max(dnaSize, 1));
+        return Math.min(SIZE_BUCKETS - 1, Math.max(0, bits - MIN_SIZE_BITS));
+    }
+
+    static String sizeLabel(int bucket) {
+        long low = 1L << (bucket + MIN_SIZE_BITS);
+        return bucket == SIZE_BUCKETS - 1 ? low + "+" : low + "-" + (2 * low - 1);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("mutant.stats.rollups.flushes", flushes, LongAdder::sum).register(registry);
+        FunctionCounter.builder("mutant.stats.rollups.flush-failures", flushFailures, LongAdder::sum).register(registry);
+        FunctionCounter.builder("mutant.stats.rollups.rows-written", rowsWritten, LongAdder::sum).register(registry);
+        Gauge.builder("mutant.stats.rollups.pending-minutes", pending, Map::size).register(registry);
+    }
+}
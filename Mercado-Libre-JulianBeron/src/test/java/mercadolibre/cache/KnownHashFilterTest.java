@@ -0,0 +1,103 @@
+package mercadolibre.cache;
+
+import org.example.mercadolibre.cache.KnownHashFilter;
+import org.example.mercadolibre.dna.DnaHash;
+import org.example.mercadolibre.repository.VerdictStore;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class KnownHashFilterTest {
+
+    @Test
+    void testPut_ShouldNeverGiveFalseNegatives() {
+        KnownHashFilter filter = new KnownHashFilter(mock(VerdictStore.class), 10_000, 0.01);
+
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(hash(i));
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain(hash(i)));
+        }
+        assertEquals(10_000, filter.getInsertions());
+        assertTrue(filter.getFill() > 0.3 && filter.getFill() < 0.7);
+    }
+
+    @Test
+    void testMightContain_UnknownHashes_ShouldStayNearConfiguredFpp() {
+        KnownHashFilter filter = new KnownHashFilter(mock(VerdictStore.class), 10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(hash(i));
+        }
+
+        int falsePositives = 0;
+        for (int i = 10_000; i < 110_000; i++) {
+            if (filter.mightContain(hash(i))) {
+                falsePositives++;
+            }
+        }
+
+        // 1% esperado sobre 100.000 consultas
+        assertTrue(falsePositives < 2_000, "falsos positivos: " + falsePositives);
+        assertEquals(0.01, filter.getExpectedFpp(), 0.005);
+    }
+
+    @Test
+    void testLoadAndRebuild_ShouldReadStoreAndGrowCapacity() {
+        VerdictStore verdictStore = mock(VerdictStore.class);
+        when(verdictStore.countByIsMutant(true)).thenReturn(300L);
+        when(verdictStore.countByIsMutant(false)).thenReturn(200L);
+        doAnswer(invocation -> {
+            Consumer<DnaHash> action = invocation.getArgument(0);
+            for (int i = 0; i < 500; i++) {
+                action.accept(hash(i));
+            }
+            return null;
+        }).when(verdictStore).forEachHash(any());
+        KnownHashFilter filter = new KnownHashFilter(verdictStore, 100, 0.01);
+
+        filter.load();
+        assertTrue(filter.mightContain(hash(0)));
+        assertTrue(filter.mightContain(hash(499)));
+        assertEquals(500, filter.getInsertions());
+        // El doble de lo guardado: no nace saturado
+        assertEquals(1_000, filter.getExpectedInsertions());
+        assertEquals(0, filter.getRebuilds());
+
+        filter.rebuild();
+        assertEquals(1, filter.getRebuilds());
+        assertTrue(filter.mightContain(hash(250)));
+    }
+
+    @Test
+    void testObservedFpp_ShouldCountFalsePositivesOverAbsentHashes() {
+        KnownHashFilter filter = new KnownHashFilter(mock(VerdictStore.class), 100, 0.01);
+
+        filter.mightContain(hash(1));
+        filter.mightContain(hash(2));
+        filter.mightContain(hash(3));
+        filter.recordFalsePositives(1);
+
+        assertEquals(0.25, filter.getObservedFpp(), 0.0001);
+    }
+
+    // Claves de 32 bytes (como SHA-256)
+    private static DnaHash hash(int key) {
+        ByteBuffer bytes = ByteBuffer.allocate(32);
+        long mixed = (key + 1) * 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < 4; i++) {
+            mixed ^= mixed >>> 29;
+            mixed *= 0xBF58476D1CE4E5B9L;
+            bytes.putLong(mixed);
+        }
+        return new DnaHash(bytes.array());
+    }
+}
@@ -0,0 +1,78 @@
+package mercadolibre.cache;
+
+import org.example.mercadolibre.cache.SingleFlight;
+import org.example.mercadolibre.dna.DnaHash;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SingleFlight singleFlight = new SingleFlight();
+
+    @Test
+    void testConcurrentCallers_ShouldShareOneExecution() throws Exception {
+        DnaHash hash = DnaHash.fromHex("ab12");
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        List<Future<Boolean>> results = new ArrayList<>();
+        results.add(executor.submit(() -> singleFlight.execute(hash, () -> {
+            executions.incrementAndGet();
+            started.countDown();
+            await(release);
+            return true;
+        })));
+        started.await(5, TimeUnit.SECONDS);
+        for (int i = 0; i < 3; i++) {
+            results.add(executor.submit(() -> singleFlight.execute(hash, () -> {
+                executions.incrementAndGet();
+                return false;
+            })));
+        }
+        // Los tres esperan al primero
+        while (singleFlight.getCoalesced() < 3) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        for (Future<Boolean> result : results) {
+            assertTrue(result.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        assertEquals(1, executions.get());
+        assertEquals(0, singleFlight.getInFlight());
+    }
+
+    @Test
+    void testFailure_ShouldPropagateAndClearEntry() {
+        DnaHash hash = DnaHash.fromHex("cd34");
+
+        assertThrows(IllegalArgumentException.class, () -> singleFlight.execute(hash, () -> {
+            throw new IllegalArgumentException("ADN inválido");
+        }));
+
+        assertEquals(0, singleFlight.getInFlight());
+        assertTrue(singleFlight.execute(hash, () -> true));
+        assertEquals(2, singleFlight.getExecutions());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package mercadolibre.cache;
+
+import org.example.mercadolibre.cache.VerdictCache;
+import org.example.mercadolibre.dna.DnaHash;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerdictCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void testGet_ShouldCountHitsAndMisses() {
+        VerdictCache cache = new VerdictCache(10, Duration.ofSeconds(60), clock::get);
+
+        assertNull(cache.get(hash("a")));
+        cache.put(hash("a"), true);
+        cache.put(hash("b"), false);
+
+        assertEquals(Boolean.TRUE, cache.get(hash("a")));
+        assertEquals(Boolean.FALSE, cache.get(hash("b")));
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void testGet_AfterTtl_ShouldExpireEntry() {
+        VerdictCache cache = new VerdictCache(10, Duration.ofSeconds(60), clock::get);
+        cache.put(hash("a"), true);
+
+        clock.addAndGet(Duration.ofSeconds(61).toNanos());
+
+        assertNull(cache.get(hash("a")));
+        assertEquals(1, cache.getExpirations());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testPut_OverMaxEntries_ShouldEvictOldest() {
+        VerdictCache cache = new VerdictCache(3, Duration.ofSeconds(60), clock::get);
+        for (int i = 0; i < 5; i++) {
+            cache.put(hash("dna" + i), i % 2 == 0);
+        }
+
+        assertEquals(3, cache.size());
+        assertEquals(2, cache.getEvictions());
+        assertNull(cache.get(hash("dna0")));
+        assertNull(cache.get(hash("dna1")));
+        assertEquals(Boolean.TRUE, cache.get(hash("dna4")));
+    }
+
+    @Test
+    void testPut_RepeatedKeys_ShouldStayBounded() {
+        // Reinsertar claves que vencen no debe hacer crecer la cola de orden sin límite
+        VerdictCache cache = new VerdictCache(2, Duration.ofSeconds(1), clock::get);
+        for (int i = 0; i < 1000; i++) {
+            cache.put(hash("dna" + (i % 2)), true);
+            clock.addAndGet(Duration.ofSeconds(2).toNanos());
+            assertNull(cache.get(hash("dna" + (i % 2))));
+        }
+        cache.put(hash("x"), false);
+        cache.put(hash("y"), true);
+
+        assertEquals(2, cache.size());
+        assertEquals(Boolean.FALSE, cache.get(hash("x")));
+    }
+
+    @Test
+    void testClear_ThenPut_ShouldStartFromEmptyQueue() {
+        VerdictCache cache = new VerdictCache(2, Duration.ofSeconds(60), clock::get);
+        cache.put(hash("a"), true);
+        cache.put(hash("b"), true);
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        // La cola arranca vacía: la tercera entrada nueva desaloja a la primera
+        cache.put(hash("b"), false);
+        cache.put(hash("c"), false);
+        cache.put(hash("d"), true);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertNull(cache.get(hash("b")));
+        assertEquals(Boolean.FALSE, cache.get(hash("c")));
+        assertEquals(Boolean.TRUE, cache.get(hash("d")));
+    }
+
+    private static DnaHash hash(String value) {
+        return new DnaHash(value.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,44 @@
+package mercadolibre.config;
+
+import org.example.mercadolibre.Launcher;
+import org.example.mercadolibre.config.ReactiveProfileCheck;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactiveProfileCheckTest {
+
+    private final ReactiveProfileCheck check = new ReactiveProfileCheck();
+    private final SpringApplication application = new SpringApplication(Launcher.class);
+
+    @Test
+    void testReactiveProfile_WithDnaRecordsStore_ShouldPass() {
+        assertDoesNotThrow(() -> check.postProcessEnvironment(reactive(), application));
+        assertDoesNotThrow(() -> check.postProcessEnvironment(reactive().withProperty("mutant.store", "jdbc"), application));
+    }
+
+    @Test
+    void testReactiveProfile_WithOffHeapOrLog_ShouldFailFast() {
+        IllegalStateException offHeap = assertThrows(IllegalStateException.class,
+                () -> check.postProcessEnvironment(reactive().withProperty("mutant.store", "off-heap"), application));
+        assertTrue(offHeap.getMessage().contains("off-heap"));
+        assertThrows(IllegalStateException.class,
+                () -> check.postProcessEnvironment(reactive().withProperty("mutant.store.log.enabled", "true"), application));
+    }
+
+    @Test
+    void testOtherProfiles_ShouldNotBeChecked() {
+        MockEnvironment durable = new MockEnvironment().withProperty("mutant.store", "off-heap")
+                .withProperty("mutant.store.log.enabled", "true");
+        durable.setActiveProfiles("durable");
+        assertDoesNotThrow(() -> check.postProcessEnvironment(durable, application));
+    }
+
+    private static MockEnvironment reactive() {
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("reactive");
+        return environment;
+    }
+}
@@ -1,20 +1,46 @@
 package mercadolibre.controller;
 
+import org.example.mercadolibre.Launcher;
+import org.example.mercadolibre.controller.MutantController;
+import org.example.mercadolibre.cache.VerdictCache;
+import org.example.mercadolibre.dna.DnaCodec;
+import org.example.mercadolibre.dna.DnaMatrix;
 import org.example.mercadolibre.dto.StatsResponse;
 import org.example.mercadolibre.repository.DnaRepository;
+import org.example.mercadolibre.stats.StatsCounters;
+import org.example.mercadolibre.stats.StatsRollups;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.Matchers.*;
 
-@SpringBootTest
+@SpringBootTest(classes = Launcher.class)
 @AutoConfigureMockMvc
 class MutantControllerIntegrationTest {
 
@@ -24,10 +50,25 @@ class MutantControllerIntegrationTest {
     @Autowired
     private DnaRepository dnaRepository;
 
+    @Autowired
+    private VerdictCache verdictCache;
+
+    @Autowired
+    private StatsCounters statsCounters;
+
+    @Autowired
+    private StatsRollups statsRollups;
+
+    @Autowired
+    private MutantController mutantController;
+
     @BeforeEach
     void setUp() {
-        // Limpiar la base de datos antes de cada test
+        // Limpiar la base de datos (y la caché y los totales en memoria) antes de cada test
         dnaRepository.deleteAll();
+        verdictCache.clear();
+        statsCounters.resync();
+        statsRollups.clear();
     }
 
     // ========== Tests POST /mutant ==========
@@ -169,6 +210,335 @@ class MutantControllerIntegrationTest {
         assert countAfterFirst == countAfterSecond : "No debería duplicar el DNA";
     }
 
+    @Test
+    void testPostMutant_ConcurrentDuplicates_ShouldNeverFail() throws Exception {
+        String mutantDna = """
+            {
+              "dna": [
+                "ATGCGA",
+                "CAGTGC",
+                "TTATGT",
+                "AGAAGG",
+                "CCCCTA",
+                "TCACTG"
+              ]
+            }
+            """;
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> statuses = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            statuses.add(executor.submit(() -> {
+                start.await();
+                return mockMvc.perform(post("/mutant")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mutantDna))
+                    .andReturn().getResponse().getStatus();
+            }));
+        }
+        start.countDown();
+        for (Future<Integer> status : statuses) {
+            assertEquals(200, status.get(10, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        // Un solo registro y contado una sola vez
+        assertEquals(1, dnaRepository.count());
+        mockMvc.perform(get("/stats"))
+            .andExpect(jsonPath("$.count_mutant_dna").value(1));
+    }
+
+    // ========== Tests POST /mutant/batch ==========
+
+    @Test
+    void testPostMutantBatch_ShouldReturnResultsInOrder() throws Exception {
+        String batch = """
+            [
+              {"dna": ["ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"]},
+              {"dna": ["ATGCGA", "CAGTGC", "TTATTT", "AGACGG", "GCGTCA", "TCACTG"]},
+              {"dna": ["ATGCGA", "CAGTGC", "TTATXT", "AGAAGG", "CCCCTA", "TCACTG"]},
+              {"dna": ["ATG", "CAG", "TTA"]},
+              {"dna": ["ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"]}
+            ]
+            """;
+
+        mockMvc.perform(post("/mutant/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(batch))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(5)))
+            .andExpect(jsonPath("$[0].mutant").value(true))
+            .andExpect(jsonPath("$[1].mutant").value(false))
+            .andExpect(jsonPath("$[2].error").value(containsString("ADN inválido")))
+            .andExpect(jsonPath("$[3].error").value("El ADN debe tener al menos 4 secuencias"))
+            .andExpect(jsonPath("$[4].mutant").value(true));
+
+        // El mutante repetido se guarda una sola vez
+        assertEquals(2, dnaRepository.count());
+        mockMvc.perform(get("/stats"))
+            .andExpect(jsonPath("$.count_mutant_dna").value(1))
+            .andExpect(jsonPath("$.count_human_dna").value(1));
+
+        // Segunda llamada: los veredictos salen de lo ya guardado
+        mockMvc.perform(post("/mutant/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(batch))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].mutant").value(true))
+            .andExpect(jsonPath("$[1].mutant").value(false));
+        assertEquals(2, dnaRepository.count());
+    }
+
+    @Test
+    void testPostMutantBatch_ShouldReturn413_WhenTooLarge() throws Exception {
+        StringBuilder batch = new StringBuilder("[");
+        for (int i = 0; i <= 1000; i++) {
+            batch.append(i == 0 ? "" : ",").append("{\"dna\": [\"ATGC\", \"CAGT\", \"TTAT\", \"AGAA\"]}");
+        }
+        batch.append("]");
+
+        mockMvc.perform(post("/mutant/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(batch.toString()))
+            .andExpect(status().isPayloadTooLarge());
+    }
+
+    @Test
+    void testPostMutantBatch_ShouldReturn413_WhenTooManyCells() throws Exception {
+        Object previous = ReflectionTestUtils.getField(mutantController, "maxBatchCells");
+        ReflectionTestUtils.setField(mutantController, "maxBatchCells", 40L);
+        try {
+            // Dos ADN de 4x4 entran (32 bases); el tercero pasa el límite
+            String dna = "{\"dna\": [\"ATGC\", \"CAGT\", \"TTAT\", \"AGAA\"]}";
+            mockMvc.perform(post("/mutant/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("[" + dna + "," + dna + "]"))
+                .andExpect(status().isOk());
+            mockMvc.perform(post("/mutant/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("[" + dna + "," + dna + "," + dna + "]"))
+                .andExpect(status().isPayloadTooLarge());
+        } finally {
+            ReflectionTestUtils.setField(mutantController, "maxBatchCells", previous);
+        }
+    }
+
+    @Test
+    void testPostMutantBatch_ShouldReturn400_WhenNotAnArray() throws Exception {
+        mockMvc.perform(post("/mutant/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"dna\": [\"ATGC\", \"CAGT\", \"TTAT\", \"AGAA\"]}"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/mutant/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"dna\": [\"ATGC\""))
+            .andExpect(status().isBadRequest());
+    }
+
+    // ========== Tests POST /mutant (binario) ==========
+
+    @Test
+    void testPostMutantBinary_ShouldMatchJsonContract() throws Exception {
+        String[] mutant = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        String[] human = {"ATGCGA", "CAGTGC", "TTATTT", "AGACGG", "GCGTCA", "TCACTG"};
+
+        mockMvc.perform(post("/mutant")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .content(binaryDna(mutant)))
+            .andExpect(status().isOk())
+            .andExpect(content().json("{\"message\": \"Es un mutante\"}"));
+        mockMvc.perform(post("/mutant")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .content(binaryDna(human)))
+            .andExpect(status().isForbidden());
+
+        // Misma huella que en JSON: no se guarda de nuevo
+        mockMvc.perform(post("/mutant")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"dna\": [\"ATGCGA\", \"CAGTGC\", \"TTATGT\", \"AGAAGG\", \"CCCCTA\", \"TCACTG\"]}"))
+            .andExpect(status().isOk());
+        assertEquals(2, dnaRepository.count());
+    }
+
+    @Test
+    void testPostMutantBinary_ShouldReturn400_WhenLengthDoesNotMatch() throws Exception {
+        byte[] body = binaryDna(new String[]{"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"});
+
+        mockMvc.perform(post("/mutant")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .content(Arrays.copyOf(body, body.length - 1)))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/mutant")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .content(new byte[]{0, 0, 0, 3, 0, 0, 0}))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value("El ADN debe tener al menos 4 secuencias"));
+    }
+
+    @Test
+    void testPostMutantBinary_ShouldStoreReceivedBytes() throws Exception {
+        String[] mutant = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+
+        mockMvc.perform(post("/mutant")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .content(binaryDna(mutant)))
+            .andExpect(status().isOk());
+
+        assertArrayEquals(DnaCodec.pack(DnaMatrix.fromRows(mutant)), dnaRepository.findAll().get(0).getDnaSequence());
+    }
+
+    @Test
+    void testPostMutantBinary_ShouldReturn413_WhenLargerThanMaxSize() throws Exception {
+        // N declarado por encima de mutant.binary.max-size: no se lee el resto
+        mockMvc.perform(post("/mutant")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .content(ByteBuffer.allocate(8).putInt(40_000).array()))
+            .andExpect(status().isPayloadTooLarge());
+        // Content-Length mayor que la matriz más grande admitida
+        mockMvc.perform(post("/mutant")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .content(new byte[4 + DnaCodec.packedLength(5000) + 1]))
+            .andExpect(status().isPayloadTooLarge());
+        assertEquals(0, dnaRepository.count());
+    }
+
+    private static byte[] binaryDna(String[] dna) {
+        byte[] packed = DnaCodec.pack(DnaMatrix.fromRows(dna));
+        return ByteBuffer.allocate(4 + packed.length).putInt(dna.length).put(packed).array();
+    }
+
+    // ========== Tests POST /mutant/rows ==========
+
+    @Test
+    void testPostMutantRows_ShouldMatchPostMutant() throws Exception {
+        String mutantDna = """
+            {"dna": ["ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"]}
+            """;
+        String humanDna = """
+            {"dna": ["ATGCGA", "CAGTGC", "TTATTT", "AGACGG", "GCGTCA", "TCACTG"]}
+            """;
+
+        mockMvc.perform(post("/mutant/rows")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mutantDna))
+            .andExpect(status().isOk())
+            .andExpect(content().json("{\"message\": \"Es un mutante\"}"));
+        mockMvc.perform(post("/mutant/rows")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(humanDna))
+            .andExpect(status().isForbidden());
+
+        // Se guarda con la misma huella que POST /mutant: repetirlo no agrega registros
+        mockMvc.perform(post("/mutant")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mutantDna))
+            .andExpect(status().isOk());
+        assertEquals(2, dnaRepository.count());
+        mockMvc.perform(get("/stats"))
+            .andExpect(jsonPath("$.count_mutant_dna").value(1))
+            .andExpect(jsonPath("$.count_human_dna").value(1));
+    }
+
+    @Test
+    void testPostMutantRows_ShouldReturn400_WhenInvalid() throws Exception {
+        mockMvc.perform(post("/mutant/rows")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"dna\": [\"ATGCGA\", \"CAGTGC\", \"TTAXGT\", \"AGAAGG\", \"CCCCTA\", \"TCACTG\"]}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value(containsString("ADN inválido")));
+
+        mockMvc.perform(post("/mutant/rows")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"dna\": [\"ATG\", \"CAG\", \"TTA\"]}"))
+            .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/mutant/rows")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+            .andExpect(status().isBadRequest());
+
+        // Falta una coma: el mensaje de Jackson cita la comilla ('"' (code 34)) y el cuerpo
+        // tiene que seguir siendo JSON válido
+        mockMvc.perform(post("/mutant/rows")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"dna\": [\"ATGCGA\" \"CAGTGC\"]}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value(containsString("JSON inválido")));
+
+        assertEquals(0, dnaRepository.count());
+    }
+
+    @Test
+    void testPostMutantRows_ShouldReturn413_WhenLargerThanMaxSize() throws Exception {
+        Object previous = ReflectionTestUtils.getField(mutantController, "maxBinarySize");
+        ReflectionTestUtils.setField(mutantController, "maxBinarySize", 5);
+        try {
+            mockMvc.perform(post("/mutant/rows")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"dna\": [\"ATGCGA\", \"CAGTGC\", \"TTATGT\", \"AGAAGG\", \"CCCCTA\", \"TCACTG\"]}"))
+                .andExpect(status().isPayloadTooLarge())
+                .andExpect(jsonPath("$.error").value(containsString("N = 5")));
+        } finally {
+            ReflectionTestUtils.setField(mutantController, "maxBinarySize", previous);
+        }
+        assertEquals(0, dnaRepository.count());
+    }
+
+    // ========== Tests POST /mutant/stream ==========
+
+    @Test
+    void testPostMutantStream_ShouldWriteOneLinePerDna() throws Exception {
+        String ndjson = """
+            {"dna": ["ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"]}
+            {"dna": ["ATGCGA", "CAGTGC", "TTATTT", "AGACGG", "GCGTCA", "TCACTG"]}
+            {"dna": ["ATG", "CAG", "TTA"]}
+            {"dna": ["ATGCGA", "CAGTGC", "TTATXT", "AGAAGG", "CCCCTA", "TCACTG"]}
+            {"dna": ["ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"]}
+            """;
+
+        MvcResult result = mockMvc.perform(post("/mutant/stream")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(ndjson))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        String[] lines = body.split("\n");
+        assertEquals(5, lines.length);
+        assertEquals("{\"index\":0,\"mutant\":true}", lines[0]);
+        assertEquals("{\"index\":1,\"mutant\":false}", lines[1]);
+        assertEquals("{\"index\":2,\"error\":\"El ADN debe tener al menos 4 secuencias\"}", lines[2]);
+        assertTrue(lines[3].startsWith("{\"index\":3,\"error\":\"ADN inválido"));
+        assertEquals("{\"index\":4,\"mutant\":true}", lines[4]);
+
+        // Mismos registros y totales que con POST /mutant
+        assertEquals(2, dnaRepository.count());
+        mockMvc.perform(get("/stats"))
+            .andExpect(jsonPath("$.count_mutant_dna").value(1))
+            .andExpect(jsonPath("$.count_human_dna").value(1));
+    }
+
+    @Test
+    void testPostMutantStream_ShouldAcceptJsonArray() throws Exception {
+        String array = """
+            [{"dna": ["AAAATG", "TGCAGT", "GCTTCC", "CCCCTG", "GTAGTC", "AGTCAC"]}]
+            """;
+
+        MvcResult result = mockMvc.perform(post("/mutant/stream")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(array))
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().string("{\"index\":0,\"mutant\":true}\n"));
+    }
+
     // ========== Tests GET /stats ==========
 
     @Test
@@ -330,6 +700,48 @@ class MutantControllerIntegrationTest {
             .andExpect(jsonPath("$.ratio").value(closeTo(0.67, 0.01)));
     }
 
+    @Test
+    void testGetStats_WithRange_ShouldReturnBucketsFromRollups() throws Exception {
+        mockMvc.perform(post("/mutant")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"dna\": [\"ATGCGA\",\"CAGTGC\",\"TTATGT\",\"AGAAGG\",\"CCCCTA\",\"TCACTG\"]}"))
+            .andExpect(status().isOk());
+        mockMvc.perform(post("/mutant")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"dna\": [\"ATGCGA\",\"CAGTGC\",\"TTATTT\",\"AGACGG\",\"GCGTCA\",\"TCACTG\"]}"))
+            .andExpect(status().isForbidden());
+
+        Instant now = Instant.now();
+        mockMvc.perform(get("/stats")
+                .param("from", now.minus(Duration.ofHours(1)).toString())
+                .param("to", now.plus(Duration.ofMinutes(1)).toString())
+                .param("granularity", "minute"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.granularity").value("minute"))
+            .andExpect(jsonPath("$.count_mutant_dna").value(1))
+            .andExpect(jsonPath("$.count_human_dna").value(1))
+            .andExpect(jsonPath("$.dna_size_histogram['4-7']").value(2))
+            .andExpect(jsonPath("$.buckets", hasSize(greaterThanOrEqualTo(1))));
+
+        mockMvc.perform(get("/stats").param("granularity", "hour"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.count_mutant_dna").value(1))
+            .andExpect(jsonPath("$.buckets", hasSize(greaterThanOrEqualTo(1))));
+    }
+
+    @Test
+    void testGetStats_WithInvalidRange_ShouldReturn400() throws Exception {
+        mockMvc.perform(get("/stats").param("granularity", "day"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/stats").param("from", "ayer"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/stats")
+                .param("from", "2024-01-02T00:00:00Z")
+                .param("to", "2024-01-01T00:00:00Z"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value("from debe ser anterior a to"));
+    }
+
     // ========== Tests GET / (Home) ==========
 
     @Test
@@ -0,0 +1,72 @@
+package mercadolibre.controller;
+
+import org.example.mercadolibre.Launcher;
+import org.example.mercadolibre.cache.VerdictCache;
+import org.example.mercadolibre.dto.DnaRequest;
+import org.example.mercadolibre.repository.DnaRepository;
+import org.example.mercadolibre.stats.StatsCounters;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(classes = Launcher.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("reactive")
+class ReactiveMutantControllerIntegrationTest {
+
+    private static final String[] MUTANT = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+    private static final String[] HUMAN = {"ATGCGA", "CAGTGC", "TTATTT", "AGACGG", "GCGTCA", "TCACTG"};
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DnaRepository dnaRepository;
+
+    @Autowired
+    private VerdictCache verdictCache;
+
+    @Autowired
+    private StatsCounters statsCounters;
+
+    @BeforeEach
+    void setUp() {
+        dnaRepository.deleteAll();
+        verdictCache.clear();
+        statsCounters.resync();
+    }
+
+    @Test
+    void testPostMutant_ShouldAnswerLikeServletStack() {
+        postDna(MUTANT).expectStatus().isOk();
+        postDna(HUMAN).expectStatus().isForbidden();
+        postDna(new String[]{"ATGC", "CAGT", "TTXT", "AGAA"}).expectStatus().isBadRequest();
+        postDna(new String[]{"ATG", "CAG", "TTA"}).expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testPostMutant_SameDnaTwice_ShouldStoreOnceAndUpdateStats() {
+        postDna(MUTANT).expectStatus().isOk();
+        // Sin caché: el segundo request resuelve el duplicado contra la base
+        verdictCache.clear();
+        postDna(MUTANT).expectStatus().isOk();
+        postDna(HUMAN).expectStatus().isForbidden();
+
+        // Los registros van por R2DBC a la misma tabla que lee JPA
+        assertEquals(2, dnaRepository.count());
+        webTestClient.get().uri("/stats").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.count_mutant_dna").isEqualTo(1)
+                .jsonPath("$.count_human_dna").isEqualTo(1)
+                .jsonPath("$.ratio").isEqualTo(1.0);
+    }
+
+    private WebTestClient.ResponseSpec postDna(String[] dna) {
+        return webTestClient.post().uri("/mutant").bodyValue(new DnaRequest(dna)).exchange();
+    }
+}
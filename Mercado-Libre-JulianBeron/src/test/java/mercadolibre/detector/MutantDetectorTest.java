@@ -0,0 +1,123 @@
+package mercadolibre.detector;
+
+import org.example.mercadolibre.detector.BandDetector;
+import org.example.mercadolibre.detector.BitboardDetector;
+import org.example.mercadolibre.detector.ByteMatrixDetector;
+import org.example.mercadolibre.detector.MutantDetector;
+import org.example.mercadolibre.detector.ParallelDetector;
+import org.example.mercadolibre.detector.RunLengthDetector;
+import org.example.mercadolibre.detector.VectorKernels;
+import org.example.mercadolibre.dna.DnaMatrix;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MutantDetectorTest {
+
+    static Stream<MutantDetector> detectors() {
+        // El kernel SIMD solo participa si los tests corren con -Pvector
+        Stream<BandDetector> kernels = Stream.concat(
+                Stream.of(new RunLengthDetector(), new BitboardDetector()),
+                VectorKernels.load().map(BandDetector.class::cast).stream());
+        // Cada kernel también por bandas: umbral mínimo y bandas de 2 filas para forzar
+        // muchos bordes entre bandas
+        return Stream.concat(Stream.of(new ByteMatrixDetector()),
+                kernels.flatMap(kernel -> Stream.of(kernel, new ParallelDetector(kernel, 4, 4, 2))));
+    }
+
+    @ParameterizedTest
+    @MethodSource("detectors")
+    void testIsMutant_WithMutantDna_ShouldReturnTrue(MutantDetector detector) {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        assertTrue(detector.isMutant(DnaMatrix.fromRows(dna)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("detectors")
+    void testIsMutant_WithHumanDna_ShouldReturnFalse(MutantDetector detector) {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATTT", "AGACGG", "GCGTCA", "TCACTG"};
+        assertFalse(detector.isMutant(DnaMatrix.fromRows(dna)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("detectors")
+    void testIsMutant_WithRunOfFive_ShouldCountTwoSequences(MutantDetector detector) {
+        // Una corrida de 5 bases contiene dos ventanas de 4 (igual que el algoritmo original)
+        String[] dna = {"AAAAAT", "TGCAGT", "GCTTCT", "CGATCT", "AGTACG", "TGACTA"};
+        assertTrue(detector.isMutant(DnaMatrix.fromRows(dna)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("detectors")
+    void testIsMutant_WithAscendingDiagonals_ShouldReturnTrue(MutantDetector detector) {
+        String[] dna = {"ATGCGA", "CAGAGC", "TTAGGT", "AAGAGG", "CGCCTA", "GCACTG"};
+        assertTrue(detector.isMutant(DnaMatrix.fromRows(dna)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("detectors")
+    void testIsMutant_ShouldMatchReferenceAlgorithm(MutantDetector detector) {
+        // Matrices aleatorias con alfabeto sesgado para generar corridas en todas las direcciones
+        Random random = new Random(42);
+        for (int iteration = 0; iteration < 2000; iteration++) {
+            int n = 4 + random.nextInt(iteration % 10 == 0 ? 70 : 12);
+            String[] dna = randomDna(random, n, 2 + random.nextInt(3));
+            assertEquals(referenceIsMutant(dna), detector.isMutant(DnaMatrix.fromRows(dna)),
+                    () -> "Veredicto distinto para " + String.join(",", dna));
+        }
+    }
+
+    static String[] randomDna(Random random, int n, int alphabetSize) {
+        String bases = "ATCG".substring(0, alphabetSize);
+        String[] dna = new String[n];
+        for (int i = 0; i < n; i++) {
+            StringBuilder row = new StringBuilder(n);
+            for (int j = 0; j < n; j++) {
+                row.append(bases.charAt(random.nextInt(alphabetSize)));
+            }
+            dna[i] = row.toString();
+        }
+        return dna;
+    }
+
+    // Algoritmo original basado en Strings, usado como referencia de veredictos
+    static boolean referenceIsMutant(String[] dna) {
+        int n = dna.length;
+        int found = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j <= n - 4; j++) {
+                if (isRun(dna[i].substring(j, j + 4))) found++;
+            }
+        }
+        for (int j = 0; j < n; j++) {
+            for (int i = 0; i <= n - 4; i++) {
+                StringBuilder sb = new StringBuilder();
+                for (int k = 0; k < 4; k++) sb.append(dna[i + k].charAt(j));
+                if (isRun(sb.toString())) found++;
+            }
+        }
+        for (int i = 0; i <= n - 4; i++) {
+            for (int j = 0; j <= n - 4; j++) {
+                StringBuilder sb = new StringBuilder();
+                for (int k = 0; k < 4; k++) sb.append(dna[i + k].charAt(j + k));
+                if (isRun(sb.toString())) found++;
+            }
+        }
+        for (int i = 3; i < n; i++) {
+            for (int j = 0; j <= n - 4; j++) {
+                StringBuilder sb = new StringBuilder();
+                for (int k = 0; k < 4; k++) sb.append(dna[i - k].charAt(j + k));
+                if (isRun(sb.toString())) found++;
+            }
+        }
+        return found > 1;
+    }
+
+    private static boolean isRun(String window) {
+        return window.equals(String.valueOf(window.charAt(0)).repeat(4));
+    }
+}
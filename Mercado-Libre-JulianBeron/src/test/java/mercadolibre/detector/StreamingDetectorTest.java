@@ -0,0 +1,62 @@
+package mercadolibre.detector;
+
+import org.example.mercadolibre.detector.StreamingDetector;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingDetectorTest {
+
+    @Test
+    void testStreaming_ShouldMatchReferenceAlgorithm() {
+        Random random = new Random(7);
+        for (int iteration = 0; iteration < 2000; iteration++) {
+            int n = 4 + random.nextInt(iteration % 10 == 0 ? 70 : 12);
+            String[] dna = MutantDetectorTest.randomDna(random, n, 2 + random.nextInt(3));
+
+            StreamingDetector detector = new StreamingDetector();
+            for (String row : dna) {
+                detector.acceptRow(row);
+            }
+
+            assertEquals(MutantDetectorTest.referenceIsMutant(dna), detector.finish(),
+                    () -> "Veredicto distinto para " + String.join(",", dna));
+        }
+    }
+
+    @Test
+    void testStreaming_ShouldDecideBeforeLastRow() {
+        StreamingDetector detector = new StreamingDetector();
+
+        assertFalse(detector.acceptRow("AAAATG"));
+        assertTrue(detector.acceptRow("CCCCTA"));
+        assertTrue(detector.isMutant());
+
+        // El resto de las filas se sigue validando
+        detector.acceptRow("TTATGT");
+        detector.acceptRow("AGAAGG");
+        assertThrows(IllegalArgumentException.class, () -> detector.acceptRow("TCAXTG"));
+    }
+
+    @Test
+    void testStreaming_WithInvalidShape_ShouldThrow() {
+        StreamingDetector tooShort = new StreamingDetector();
+        tooShort.acceptRow("ATGC");
+        assertThrows(IllegalArgumentException.class, () -> tooShort.acceptRow("ATG"));
+
+        StreamingDetector missingRows = new StreamingDetector();
+        missingRows.acceptRow("ATGCG");
+        missingRows.acceptRow("CAGTG");
+        missingRows.acceptRow("TTATG");
+        missingRows.acceptRow("AGAAG");
+        assertThrows(IllegalArgumentException.class, missingRows::finish);
+
+        StreamingDetector tooManyRows = new StreamingDetector();
+        for (int i = 0; i < 4; i++) {
+            tooManyRows.acceptRow("ATGC");
+        }
+        assertThrows(IllegalArgumentException.class, () -> tooManyRows.acceptRow("ATGC"));
+    }
+}
@@ -0,0 +1,60 @@
+package mercadolibre.dna;
+
+import org.example.mercadolibre.dna.DnaCodec;
+import org.example.mercadolibre.dna.DnaHash;
+import org.example.mercadolibre.dna.DnaMatrix;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DnaCodecTest {
+
+    @Test
+    void testPackAndDecode_ShouldRestoreOriginalRows() {
+        String[] dna = {
+                "ATGCGA",
+                "CAGTGC",
+                "TTATGT",
+                "AGAAGG",
+                "CCCCTA",
+                "TCACTG"
+        };
+
+        byte[] packed = DnaCodec.pack(DnaMatrix.fromRows(dna));
+
+        assertEquals(9, packed.length);
+        assertArrayEquals(dna, DnaCodec.decode(6, packed));
+    }
+
+    @Test
+    void testUnpack_ShouldRestoreCells() {
+        String[] dna = {"ACGTA", "CGTAC", "GTACG", "TACGT", "ACGTA"};
+        DnaMatrix matrix = DnaMatrix.fromRows(dna);
+
+        DnaMatrix unpacked = DnaCodec.unpack(5, DnaCodec.pack(matrix));
+
+        assertArrayEquals(matrix.getCells(), unpacked.getCells());
+    }
+
+    @Test
+    void testClearPadding_ShouldMatchPack() {
+        String[] dna = {"ACGTA", "CGTAC", "GTACG", "TACGT", "ACGTA"};
+        byte[] expected = DnaCodec.pack(DnaMatrix.fromRows(dna));
+        byte[] received = expected.clone();
+        // 25 celdas: el último byte usa solo sus 2 bits bajos
+        received[received.length - 1] |= (byte) 0xFC;
+
+        DnaCodec.clearPadding(5, received);
+
+        assertArrayEquals(expected, received);
+    }
+
+    @Test
+    void testDnaHash_HexRoundTrip() {
+        DnaHash hash = DnaHash.fromHex("00ff10ab");
+
+        assertEquals(4, hash.length());
+        assertEquals("00ff10ab", hash.toHex());
+        assertEquals(hash, new DnaHash(new byte[]{0x00, (byte) 0xff, 0x10, (byte) 0xab}));
+    }
+}
@@ -0,0 +1,186 @@
+package mercadolibre.dna;
+
+import org.example.mercadolibre.dna.DnaFingerprinter;
+import org.example.mercadolibre.dna.DnaHash;
+import org.example.mercadolibre.dna.DnaMatrix;
+import org.example.mercadolibre.dna.Murmur3;
+import org.example.mercadolibre.dna.PreparedDna;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DnaFingerprinterTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {DnaFingerprinter.SHA_256, DnaFingerprinter.MURMUR3_128})
+    void testFingerprint_SameDna_ShouldMatch(String algorithm) {
+        DnaFingerprinter fingerprinter = new DnaFingerprinter(algorithm);
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+
+        assertEquals(fingerprinter.fingerprint(dna), fingerprinter.fingerprint(dna.clone()));
+        assertEquals(fingerprinter.getHashLength(), fingerprinter.fingerprint(dna).length());
+        assertNotEquals(fingerprinter.fingerprint(dna),
+                fingerprinter.fingerprint(new String[]{"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTA"}));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {DnaFingerprinter.SHA_256, DnaFingerprinter.MURMUR3_128})
+    void testPrepare_ValidDna_ShouldMatchFingerprintAndMatrix(String algorithm) {
+        DnaFingerprinter fingerprinter = new DnaFingerprinter(algorithm);
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+
+        PreparedDna prepared = fingerprinter.prepare(dna);
+
+        assertTrue(prepared.isValid());
+        assertEquals(fingerprinter.fingerprint(dna), prepared.hash());
+        assertArrayEquals(DnaMatrix.fromRows(dna).getCells(), prepared.matrix().getCells());
+    }
+
+    @Test
+    void testPrepare_InvalidDna_ShouldReturnErrorWithoutThrowing() {
+        DnaFingerprinter fingerprinter = new DnaFingerprinter();
+
+        PreparedDna badBase = fingerprinter.prepare(new String[]{"ATGC", "CAGT", "TTXT", "AGAA"});
+        PreparedDna notSquare = fingerprinter.prepare(new String[]{"ATGC", "CAGT", "TTA", "AGAA"});
+        PreparedDna nullRow = fingerprinter.prepare(new String[]{"ATGC", null, "TTAT", "AGAA"});
+        PreparedDna tooSmall = fingerprinter.prepare(new String[]{"ATG", "CAG", "TTA"});
+
+        for (PreparedDna prepared : new PreparedDna[]{badBase, notSquare, nullRow}) {
+            assertFalse(prepared.isValid());
+            assertEquals(PreparedDna.INVALID_DNA, prepared.error());
+            assertNull(prepared.hash());
+        }
+        assertEquals("El ADN debe tener al menos 4 secuencias", tooSmall.error());
+        assertEquals("El ADN no puede ser nulo", fingerprinter.prepare(null).error());
+    }
+
+    @Test
+    void testPrepare_ManyShortRows_ShouldRejectBeforeAllocatingMatrix() {
+        DnaFingerprinter fingerprinter = new DnaFingerprinter();
+        // 40.000 filas vacías: la matriz serían 1,6 GB; 50.000: N * N no entra en un int
+        for (int n : new int[]{40_000, 50_000}) {
+            String[] dna = new String[n];
+            Arrays.fill(dna, "");
+
+            PreparedDna prepared = fingerprinter.prepare(dna);
+            assertFalse(prepared.isValid());
+            assertEquals(PreparedDna.INVALID_DNA, prepared.error());
+            assertFalse(DnaFingerprinter.encode(dna).isValid());
+        }
+    }
+
+    @Test
+    void testEncode_ShouldMatchPrepareWithoutHash() {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+
+        PreparedDna encoded = DnaFingerprinter.encode(dna);
+
+        assertTrue(encoded.isValid());
+        assertNull(encoded.hash());
+        assertArrayEquals(new DnaFingerprinter().prepare(dna).matrix().getCells(), encoded.matrix().getCells());
+        assertEquals(PreparedDna.INVALID_DNA, DnaFingerprinter.encode(new String[]{"ATGC", "CAGT", "TTXT", "AGAA"}).error());
+    }
+
+    @Test
+    void testFingerprint_OnVirtualThreads_ShouldMatchPlatformThread() throws Exception {
+        DnaFingerprinter fingerprinter = new DnaFingerprinter();
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        DnaHash expected = fingerprinter.fingerprint(dna);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<DnaHash>> hashes = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                boolean viaPrepare = i % 2 == 0;
+                hashes.add(executor.submit(() -> !viaPrepare
+                        ? fingerprinter.fingerprint(dna)
+                        : fingerprinter.prepare(dna).hash()));
+            }
+            for (Future<DnaHash> hash : hashes) {
+                assertEquals(expected, hash.get());
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {DnaFingerprinter.SHA_256, DnaFingerprinter.MURMUR3_128})
+    void testFingerprint_DifferentRowSplits_ShouldNotCollide(String algorithm) {
+        DnaFingerprinter fingerprinter = new DnaFingerprinter(algorithm);
+
+        DnaHash a = fingerprinter.fingerprint(new String[]{"AAAA", "CCCC"});
+        DnaHash b = fingerprinter.fingerprint(new String[]{"AAA", "ACCCC"});
+        DnaHash c = fingerprinter.fingerprint(new String[]{"AAAACCCC"});
+
+        assertNotEquals(a, b);
+        assertNotEquals(a, c);
+        assertNotEquals(b, c);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {DnaFingerprinter.SHA_256, DnaFingerprinter.MURMUR3_128})
+    void testFingerprint_LargerThanBuffer_ShouldBeStable(String algorithm) {
+        DnaFingerprinter fingerprinter = new DnaFingerprinter(algorithm);
+        String[] dna = new String[150];
+        char[] row = new char[150];
+        for (int i = 0; i < dna.length; i++) {
+            Arrays.fill(row, "ACGT".charAt(i % 4));
+            dna[i] = new String(row);
+        }
+
+        DnaHash first = fingerprinter.fingerprint(dna);
+        String[] changed = dna.clone();
+        changed[149] = "T" + dna[149].substring(1);
+
+        assertEquals(first, fingerprinter.fingerprint(dna));
+        assertNotEquals(first, fingerprinter.fingerprint(changed));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {DnaFingerprinter.SHA_256, DnaFingerprinter.MURMUR3_128})
+    void testRowAndMatrixFingerprint_ShouldMatchFingerprint(String algorithm) {
+        DnaFingerprinter fingerprinter = new DnaFingerprinter(algorithm);
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+
+        DnaFingerprinter.RowFingerprint rows = fingerprinter.begin(dna.length);
+        for (String row : dna) {
+            rows.addRow(row);
+        }
+
+        assertEquals(fingerprinter.fingerprint(dna), rows.finish());
+        assertEquals(fingerprinter.fingerprint(dna), fingerprinter.fingerprint(DnaMatrix.fromRows(dna)));
+    }
+
+    @Test
+    void testFingerprint_Lengths() {
+        String[] dna = {"ATGC", "CAGT", "TTAT", "AGAA"};
+
+        assertEquals(32, new DnaFingerprinter(DnaFingerprinter.SHA_256).fingerprint(dna).length());
+        assertEquals(16, new DnaFingerprinter(DnaFingerprinter.MURMUR3_128).fingerprint(dna).length());
+    }
+
+    @Test
+    void testUnknownAlgorithm_ShouldFail() {
+        assertThrows(IllegalArgumentException.class, () -> new DnaFingerprinter("md5"));
+    }
+
+    @Test
+    void testMurmur3_ReferenceVector() {
+        byte[] data = "The quick brown fox jumps over the lazy dog".getBytes(StandardCharsets.US_ASCII);
+        int blocks = data.length & -Murmur3.BLOCK;
+        Murmur3 murmur = new Murmur3();
+
+        murmur.update(data, 0, blocks);
+        byte[] hash = murmur.finish(data, blocks, data.length - blocks);
+
+        assertEquals("6c1b07bc7bbc4be347939ac4a93c437a", new DnaHash(hash).toHex());
+    }
+}
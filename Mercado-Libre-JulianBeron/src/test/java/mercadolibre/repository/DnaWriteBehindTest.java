@@ -0,0 +1,180 @@
+package mercadolibre.repository;
+
+import org.example.mercadolibre.dna.DnaHash;
+import org.example.mercadolibre.entity.Dna;
+import org.example.mercadolibre.repository.VerdictStore;
+import org.example.mercadolibre.repository.DnaWriteBehind;
+import org.example.mercadolibre.stats.StatsCounters;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DnaWriteBehindTest {
+
+    @Mock
+    private VerdictStore verdictStore;
+
+    @Mock
+    private StatsCounters statsCounters;
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void testSubmit_ShouldBatchRecordsAndFlushOnClose(boolean virtualThreads) throws InterruptedException {
+        List<String> written = Collections.synchronizedList(new ArrayList<>());
+        when(verdictStore.insertAllIfAbsent(anyList())).thenAnswer(i -> {
+            List<Dna> batch = i.getArgument(0);
+            batch.forEach(dna -> written.add(dna.getDnaHash().toHex()));
+            int[] counts = new int[batch.size()];
+            Arrays.fill(counts, 1);
+            return counts;
+        });
+
+        DnaWriteBehind writeBehind = new DnaWriteBehind(verdictStore, statsCounters,
+                1000, 50, Duration.ofMillis(5), Duration.ofMillis(50), virtualThreads);
+        for (int i = 0; i < 200; i++) {
+            assertTrue(writeBehind.submit(record("hash" + i, i % 2 == 0)));
+        }
+        writeBehind.close();
+
+        assertEquals(200, written.size());
+        assertNull(writeBehind.findPending(hash("hash0")));
+        verify(statsCounters, never()).revertInsert(anyBoolean());
+    }
+
+    @Test
+    void testSubmit_WhilePending_ShouldExposeVerdictAndRejectDuplicate() throws InterruptedException {
+        when(verdictStore.insertAllIfAbsent(anyList())).thenReturn(new int[]{1});
+
+        // Linger largo: el registro queda en la cola hasta close()
+        DnaWriteBehind writeBehind = new DnaWriteBehind(verdictStore, statsCounters,
+                10, 100, Duration.ofSeconds(30), Duration.ofMillis(50), false);
+        assertTrue(writeBehind.submit(record("hash", true)));
+
+        assertEquals(Boolean.TRUE, writeBehind.findPending(hash("hash")));
+        assertFalse(writeBehind.submit(record("hash", true)));
+
+        writeBehind.close();
+        verify(verdictStore, times(1)).insertAllIfAbsent(anyList());
+    }
+
+    @Test
+    void testWrite_WithExistingRecord_ShouldRevertCount() throws InterruptedException {
+        when(verdictStore.insertAllIfAbsent(anyList())).thenReturn(new int[]{0});
+
+        DnaWriteBehind writeBehind = new DnaWriteBehind(verdictStore, statsCounters,
+                10, 100, Duration.ofMillis(1), Duration.ofMillis(50), false);
+        writeBehind.submit(record("hash", false));
+        writeBehind.close();
+
+        verify(statsCounters).revertInsert(false);
+    }
+
+    @Test
+    void testSubmit_WhenQueueFull_ShouldWriteInCallerThread() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> threads = Collections.synchronizedList(new ArrayList<>());
+        when(verdictStore.insertAllIfAbsent(anyList())).thenAnswer(i -> {
+            threads.add(Thread.currentThread().getName());
+            if (Thread.currentThread().getName().equals("dna-write-behind")) {
+                release.await();
+            }
+            List<Dna> batch = i.getArgument(0);
+            int[] counts = new int[batch.size()];
+            Arrays.fill(counts, 1);
+            return counts;
+        });
+
+        DnaWriteBehind writeBehind = new DnaWriteBehind(verdictStore, statsCounters,
+                1, 1, Duration.ZERO, Duration.ofMillis(10), false);
+        writeBehind.submit(record("hash0", true));
+        // Espera a que el writer tome el primero y quede bloqueado
+        while (threads.isEmpty()) {
+            Thread.onSpinWait();
+        }
+        writeBehind.submit(record("hash1", true));
+        writeBehind.submit(record("hash2", true));
+
+        assertTrue(threads.contains(Thread.currentThread().getName()));
+        release.countDown();
+        writeBehind.close();
+    }
+
+    @Test
+    void testWrite_StoreThrowsRuntimeException_ShouldRetryAndKeepWriterAlive() throws InterruptedException {
+        when(verdictStore.insertAllIfAbsent(anyList()))
+                .thenThrow(new IllegalStateException("índice lleno"))
+                .thenReturn(new int[]{1})
+                .thenThrow(new UncheckedIOException(new IOException("disco lleno")))
+                .thenThrow(new UncheckedIOException(new IOException("disco lleno")))
+                .thenThrow(new UncheckedIOException(new IOException("disco lleno")))
+                .thenReturn(new int[]{1});
+
+        DnaWriteBehind writeBehind = new DnaWriteBehind(verdictStore, statsCounters,
+                10, 1, Duration.ZERO, Duration.ofMillis(50), false);
+        // Falla una vez y el reintento lo persiste
+        writeBehind.submit(record("hash0", true));
+        awaitWritten(writeBehind, "hash0");
+        verify(statsCounters, never()).revertInsert(anyBoolean());
+
+        // Falla en todos los intentos: se descarta y se descuenta, sin quedar pendiente
+        writeBehind.submit(record("hash1", false));
+        awaitWritten(writeBehind, "hash1");
+        verify(statsCounters).revertInsert(false);
+
+        // El writer sigue vivo
+        writeBehind.submit(record("hash2", true));
+        awaitWritten(writeBehind, "hash2");
+        writeBehind.close();
+        verify(verdictStore, times(6)).insertAllIfAbsent(anyList());
+        verify(statsCounters, times(1)).revertInsert(anyBoolean());
+    }
+
+    @Test
+    void testSubmit_AfterClose_ShouldWriteInCallerThread() throws InterruptedException {
+        when(verdictStore.insertAllIfAbsent(anyList())).thenReturn(new int[]{1});
+
+        DnaWriteBehind writeBehind = new DnaWriteBehind(verdictStore, statsCounters,
+                10, 100, Duration.ofMillis(1), Duration.ofMillis(50), false);
+        writeBehind.close();
+        assertTrue(writeBehind.submit(record("hash", true)));
+
+        assertNull(writeBehind.findPending(hash("hash")));
+        assertEquals(0, writeBehind.getQueueSize());
+        verify(verdictStore).insertAllIfAbsent(anyList());
+    }
+
+    private static void awaitWritten(DnaWriteBehind writeBehind, String hash) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (writeBehind.findPending(hash(hash)) != null) {
+            assertTrue(System.nanoTime() < deadline, "el registro sigue pendiente");
+            Thread.onSpinWait();
+        }
+    }
+
+    private static DnaHash hash(String value) {
+        return new DnaHash(value.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static Dna record(String hash, boolean isMutant) {
+        return new Dna(hash(hash), isMutant, 4, new byte[4]);
+    }
+}
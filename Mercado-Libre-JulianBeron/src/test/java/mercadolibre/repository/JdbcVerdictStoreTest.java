@@ -0,0 +1,90 @@
+package mercadolibre.repository;
+
+import org.example.mercadolibre.Launcher;
+import org.example.mercadolibre.dna.DnaHash;
+import org.example.mercadolibre.entity.Dna;
+import org.example.mercadolibre.repository.DnaRepository;
+import org.example.mercadolibre.repository.DnaVerdict;
+import org.example.mercadolibre.repository.JdbcVerdictStore;
+import org.example.mercadolibre.repository.VerdictStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = Launcher.class)
+@ActiveProfiles("jdbc")
+class JdbcVerdictStoreTest {
+
+    @Autowired
+    private VerdictStore verdictStore;
+
+    @Autowired
+    private DnaRepository dnaRepository;
+
+    @BeforeEach
+    void setUp() {
+        dnaRepository.deleteAll();
+    }
+
+    @Test
+    void testJdbcProfile_ShouldSelectJdbcStore() {
+        assertInstanceOf(JdbcVerdictStore.class, verdictStore);
+    }
+
+    @Test
+    void testInsertAndFind_ShouldMapVerdictWithoutEntities() {
+        assertNull(verdictStore.findVerdict(hash("a")));
+
+        assertTrue(verdictStore.insertIfAbsent(record("a", true)));
+        assertFalse(verdictStore.insertIfAbsent(record("a", false)));
+        assertTrue(verdictStore.insertIfAbsent(record("b", false)));
+
+        assertEquals(Boolean.TRUE, verdictStore.findVerdict(hash("a")));
+        assertEquals(Boolean.FALSE, verdictStore.findVerdict(hash("b")));
+        assertEquals(1, verdictStore.countByIsMutant(true));
+        assertEquals(1, verdictStore.countByIsMutant(false));
+        // Lo mismo que ve JPA
+        assertEquals(2, dnaRepository.count());
+    }
+
+    @Test
+    void testFindVerdicts_MoreHashesThanOneChunk_ShouldReturnOnlyStored() {
+        List<Dna> records = new ArrayList<>();
+        List<DnaHash> lookup = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            if (i % 2 == 0) {
+                records.add(record("dna" + i, i % 4 == 0));
+            }
+            lookup.add(hash("dna" + i));
+        }
+        verdictStore.insertAllIfAbsent(records);
+
+        Map<DnaHash, Boolean> found = new HashMap<>();
+        for (DnaVerdict verdict : verdictStore.findVerdicts(lookup)) {
+            found.put(verdict.dnaHash(), verdict.mutant());
+        }
+
+        assertEquals(125, found.size());
+        assertEquals(Boolean.TRUE, found.get(hash("dna0")));
+        assertEquals(Boolean.FALSE, found.get(hash("dna2")));
+        assertNull(found.get(hash("dna1")));
+    }
+
+    private static Dna record(String key, boolean mutant) {
+        return new Dna(hash(key), mutant, 4, new byte[4]);
+    }
+
+    private static DnaHash hash(String key) {
+        return new DnaHash(key.getBytes(StandardCharsets.UTF_8));
+    }
+}
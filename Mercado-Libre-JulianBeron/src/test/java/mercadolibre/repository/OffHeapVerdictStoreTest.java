@@ -0,0 +1,176 @@
+package mercadolibre.repository;
+
+import org.example.mercadolibre.dna.DnaFingerprinter;
+import org.example.mercadolibre.dna.DnaHash;
+import org.example.mercadolibre.entity.Dna;
+import org.example.mercadolibre.repository.DnaVerdict;
+import org.example.mercadolibre.repository.OffHeapVerdictIndex;
+import org.example.mercadolibre.repository.OffHeapVerdictStore;
+import org.example.mercadolibre.repository.VerdictLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapVerdictStoreTest {
+
+    @Test
+    void testInsertAndFind_ShouldDeduplicateAndCount() {
+        OffHeapVerdictStore store = new OffHeapVerdictStore(new DnaFingerprinter(), 16, 0.7);
+
+        assertNull(store.findVerdict(hash(1)));
+        assertTrue(store.insertIfAbsent(record(1, true)));
+        assertFalse(store.insertIfAbsent(record(1, false)));
+        assertArrayEquals(new int[]{1, 0, 0}, store.insertAllIfAbsent(List.of(record(2, false), record(2, false), record(1, false))));
+
+        assertEquals(Boolean.TRUE, store.findVerdict(hash(1)));
+        assertEquals(Boolean.FALSE, store.findVerdict(hash(2)));
+        assertEquals(1, store.countByIsMutant(true));
+        assertEquals(1, store.countByIsMutant(false));
+
+        List<DnaVerdict> verdicts = store.findVerdicts(List.of(hash(1), hash(2), hash(3)));
+        assertEquals(List.of(new DnaVerdict(hash(1), true), new DnaVerdict(hash(2), false)), verdicts);
+    }
+
+    @Test
+    void testWithVerdictLog_ShouldRecoverAfterRestart(@TempDir Path dir) {
+        OffHeapVerdictStore store = durableStore(dir);
+        assertTrue(store.insertIfAbsent(record(1, true)));
+        assertFalse(store.insertIfAbsent(record(1, false)));
+        store.insertAllIfAbsent(List.of(record(2, false), record(3, false)));
+        closeLog(store);
+
+        OffHeapVerdictStore restarted = durableStore(dir);
+        assertEquals(Boolean.TRUE, restarted.findVerdict(hash(1)));
+        assertEquals(Boolean.FALSE, restarted.findVerdict(hash(3)));
+        assertEquals(1, restarted.countByIsMutant(true));
+        assertEquals(2, restarted.countByIsMutant(false));
+        closeLog(restarted);
+    }
+
+    @Test
+    void testWithVerdictLog_AppendFailure_ShouldNotPublishVerdict(@TempDir Path dir) {
+        OffHeapVerdictStore store = durableStore(dir);
+        assertTrue(store.insertIfAbsent(record(1, true)));
+        closeLog(store);
+
+        assertThrows(IllegalStateException.class, () -> store.insertIfAbsent(record(2, true)));
+        assertNull(store.findVerdict(hash(2)));
+        assertEquals(1, store.countByIsMutant(true));
+        // El duplicado se resuelve con el índice, sin tocar el log
+        assertFalse(store.insertIfAbsent(record(1, false)));
+    }
+
+    @Test
+    void testIndex_ManyEntries_ShouldResizeAndKeepVerdicts() {
+        OffHeapVerdictIndex index = new OffHeapVerdictIndex(32, 4, 0.5);
+        int initialCapacity = index.capacity();
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(index.putIfAbsent(hash(i), i % 3 == 0));
+        }
+
+        assertTrue(index.capacity() > initialCapacity);
+        assertTrue(index.resizes() > 0);
+        assertTrue(index.loadFactor() <= 0.5);
+        assertEquals(10_000, index.size());
+        assertEquals(3_334, index.count(true));
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i % 3 == 0, index.get(hash(i)));
+        }
+        assertNull(index.get(hash(10_000)));
+    }
+
+    @Test
+    void testIndex_WrongKeyLength_ShouldThrow() {
+        OffHeapVerdictIndex index = new OffHeapVerdictIndex(16, 16, 0.7);
+
+        assertThrows(IllegalArgumentException.class, () -> index.get(hash(1)));
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapVerdictIndex(8, 16, 0.7));
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapVerdictIndex(32, 16, 1.0));
+    }
+
+    @Test
+    void testIndex_ConcurrentWritersAndReaders_ShouldSeeEveryInsert() throws Exception {
+        OffHeapVerdictIndex index = new OffHeapVerdictIndex(32, 2, 0.7);
+        int writers = 4;
+        int perWriter = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(writers * 2);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> tasks = new ArrayList<>();
+
+        try {
+            for (int w = 0; w < writers; w++) {
+                int base = w * perWriter;
+                tasks.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = base; i < base + perWriter; i++) {
+                        index.putIfAbsent(hash(i), i % 2 == 0);
+                        // Lo que escribió este hilo se ve de inmediato, aunque otro agrande la tabla
+                        assertEquals(i % 2 == 0, index.get(hash(i)));
+                    }
+                    return null;
+                }));
+                // Lectores sobre las mismas claves mientras se escriben
+                tasks.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = base; i < base + perWriter; i++) {
+                        Boolean verdict = index.get(hash(i));
+                        if (verdict != null) {
+                            assertEquals(i % 2 == 0, verdict);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> task : tasks) {
+                task.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals((long) writers * perWriter, index.size());
+        assertEquals((long) writers * perWriter / 2, index.count(true));
+    }
+
+    private static OffHeapVerdictStore durableStore(Path dir) {
+        OffHeapVerdictStore store = new OffHeapVerdictStore(new DnaFingerprinter(), 16, 0.7);
+        ReflectionTestUtils.setField(store, "verdictLog", new VerdictLog(dir, 32, 100, Duration.ZERO, 0.2));
+        store.recover();
+        return store;
+    }
+
+    private static void closeLog(OffHeapVerdictStore store) {
+        ((VerdictLog) ReflectionTestUtils.getField(store, "verdictLog")).close();
+    }
+
+    private static Dna record(int key, boolean mutant) {
+        return new Dna(hash(key), mutant, 4, new byte[4]);
+    }
+
+    // Claves de 32 bytes (como SHA-256) con bits repartidos en todo el arreglo
+    private static DnaHash hash(int key) {
+        ByteBuffer bytes = ByteBuffer.allocate(32);
+        long mixed = key * 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < 4; i++) {
+            mixed ^= mixed >>> 29;
+            mixed *= 0xBF58476D1CE4E5B9L;
+            bytes.putLong(mixed);
+        }
+        return new DnaHash(bytes.array());
+    }
+}
@@ -0,0 +1,213 @@
+package mercadolibre.repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.mercadolibre.dna.DnaHash;
+import org.example.mercadolibre.entity.Dna;
+import org.example.mercadolibre.repository.OffHeapVerdictIndex;
+import org.example.mercadolibre.repository.VerdictLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerdictLogTest {
+
+    private static final int KEY_BYTES = 32;
+    // [estado][relleno][N][timestamp] + hash + crc
+    private static final int RECORD_BYTES = 16 + KEY_BYTES + 4;
+    private static final int SEGMENT_HEADER_BYTES = 16;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testRecover_AfterRestart_ShouldRebuildIndexAndCounts() {
+        VerdictLog first = newLog(100);
+        first.recover(newIndex());
+        for (int i = 0; i < 10; i++) {
+            first.append(record(i, i < 3));
+        }
+        first.close();
+
+        OffHeapVerdictIndex index = newIndex();
+        VerdictLog second = newLog(100);
+        VerdictLog.Recovery recovery = second.recover(index);
+
+        assertEquals(10, recovery.records());
+        assertEquals(0, recovery.duplicates());
+        assertEquals(3, index.count(true));
+        assertEquals(7, index.count(false));
+        assertEquals(Boolean.TRUE, index.get(hash(0)));
+        assertEquals(Boolean.FALSE, index.get(hash(9)));
+
+        // Sigue agregando después del último registro recuperado
+        second.append(record(10, true));
+        second.close();
+        assertEquals(11, newLog(100).recover(newIndex()).records());
+    }
+
+    @Test
+    void testAppend_FullSegment_ShouldRollToNextSegment() throws IOException {
+        VerdictLog verdictLog = newLog(10);
+        verdictLog.recover(newIndex());
+        for (int i = 0; i < 25; i++) {
+            verdictLog.append(record(i, false));
+        }
+        verdictLog.close();
+
+        assertEquals(3, segmentFiles().size());
+        OffHeapVerdictIndex index = newIndex();
+        assertEquals(25, newLog(10).recover(index).records());
+        assertEquals(25, index.size());
+    }
+
+    @Test
+    void testRecover_TornRecord_ShouldStopThereAndOverwriteIt() throws IOException {
+        VerdictLog verdictLog = newLog(100);
+        verdictLog.recover(newIndex());
+        for (int i = 0; i < 5; i++) {
+            verdictLog.append(record(i, false));
+        }
+        verdictLog.close();
+
+        // El quinto registro quedó escrito a medias: su CRC ya no coincide
+        Path segment = segmentFiles().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0x7F}), SEGMENT_HEADER_BYTES + 4L * RECORD_BYTES + 20);
+        }
+
+        VerdictLog reopened = newLog(100);
+        VerdictLog.Recovery recovery = reopened.recover(newIndex());
+        assertEquals(4, recovery.records());
+        assertEquals(1, recovery.torn());
+        reopened.append(record(100, true));
+        reopened.close();
+
+        OffHeapVerdictIndex index = newIndex();
+        VerdictLog.Recovery again = newLog(100).recover(index);
+        assertEquals(5, again.records());
+        assertEquals(0, again.torn());
+        assertEquals(Boolean.TRUE, index.get(hash(100)));
+        assertNull(index.get(hash(4)));
+    }
+
+    @Test
+    void testRecover_ManyDuplicates_ShouldCompactToOneRecordPerHash() throws IOException {
+        VerdictLog verdictLog = newLog(10);
+        verdictLog.recover(newIndex());
+        // El log no deduplica (eso lo hace el índice): se simulan segmentos repetidos
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 8; i++) {
+                verdictLog.append(record(i, round == 0 && i % 2 == 0));
+            }
+        }
+        verdictLog.close();
+        assertEquals(3, segmentFiles().size());
+
+        OffHeapVerdictIndex index = newIndex();
+        VerdictLog compacting = newLog(10);
+        VerdictLog.Recovery recovery = compacting.recover(index);
+        assertEquals(8, recovery.records());
+        assertEquals(16, recovery.duplicates());
+        assertTrue(recovery.compacted());
+        // Vale el primer registro de cada hash
+        assertEquals(4, index.count(true));
+        compacting.close();
+
+        assertEquals(1, segmentFiles().size());
+        VerdictLog.Recovery after = newLog(10).recover(newIndex());
+        assertEquals(8, after.records());
+        assertEquals(0, after.duplicates());
+        assertFalse(after.compacted());
+    }
+
+    @Test
+    void testAppend_AfterClose_ShouldThrowWithoutOpeningSegments() throws IOException {
+        VerdictLog verdictLog = newLog(10);
+        verdictLog.recover(newIndex());
+        verdictLog.append(record(0, true));
+        verdictLog.close();
+        verdictLog.close();
+
+        assertThrows(IllegalStateException.class, () -> verdictLog.append(record(1, true)));
+        assertEquals(1, segmentFiles().size());
+        assertEquals(1, newLog(10).recover(newIndex()).records());
+    }
+
+    @Test
+    void testScheduledFsync_Failure_ShouldCountAndKeepRunning() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        VerdictLog verdictLog = new VerdictLog(dir, KEY_BYTES, 10, Duration.ofMillis(5), 0.2) {
+            @Override
+            public void sync() {
+                if (calls.incrementAndGet() <= 2) {
+                    throw new UncheckedIOException(new IOException("disco lleno"));
+                }
+                super.sync();
+            }
+        };
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        verdictLog.bindTo(registry);
+        verdictLog.recover(newIndex());
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.get("mutant.store.log.fsyncs").functionCounter().count() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        verdictLog.close();
+
+        assertEquals(2, registry.get("mutant.store.log.fsync-failures").functionCounter().count());
+        assertTrue(registry.get("mutant.store.log.fsyncs").functionCounter().count() >= 1);
+    }
+
+    @Test
+    void testConstructor_SegmentOverTwoGigabytes_ShouldThrow() {
+        int maxRecords = (Integer.MAX_VALUE - SEGMENT_HEADER_BYTES) / RECORD_BYTES;
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> newLog(maxRecords + 1));
+        assertTrue(e.getMessage().contains("mutant.store.log.segment-records"));
+        assertDoesNotThrow(() -> newLog(maxRecords));
+    }
+
+    private VerdictLog newLog(int segmentRecords) {
+        return new VerdictLog(dir, KEY_BYTES, segmentRecords, Duration.ZERO, 0.2);
+    }
+
+    private static OffHeapVerdictIndex newIndex() {
+        return new OffHeapVerdictIndex(KEY_BYTES, 16, 0.7);
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static Dna record(int key, boolean mutant) {
+        return new Dna(hash(key), mutant, 6, new byte[9]);
+    }
+
+    private static DnaHash hash(int key) {
+        ByteBuffer bytes = ByteBuffer.allocate(KEY_BYTES);
+        long mixed = (key + 1) * 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < 4; i++) {
+            mixed ^= mixed >>> 29;
+            mixed *= 0xBF58476D1CE4E5B9L;
+            bytes.putLong(mixed);
+        }
+        return new DnaHash(bytes.array());
+    }
+}
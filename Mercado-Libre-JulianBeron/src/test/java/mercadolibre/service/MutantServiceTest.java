@@ -1,26 +1,40 @@
 package mercadolibre.service;
 
+import org.example.mercadolibre.cache.KnownHashFilter;
+import org.example.mercadolibre.cache.VerdictCache;
+import org.example.mercadolibre.dna.DnaHash;
+import org.example.mercadolibre.dna.PreparedDna;
+import org.example.mercadolibre.dto.DnaResult;
 import org.example.mercadolibre.entity.Dna;
-import org.example.mercadolibre.repository.DnaRepository;
+import org.example.mercadolibre.repository.VerdictStore;
+import org.example.mercadolibre.service.MutantService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
-import java.util.Optional;
+import java.time.Duration;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class MutantServiceTest {
 
     @Mock
-    private DnaRepository dnaRepository;
+    private VerdictStore verdictStore;
+
+    @Spy
+    private VerdictCache verdictCache = new VerdictCache(100, Duration.ofMinutes(1), System::nanoTime);
 
     @InjectMocks
     private MutantService mutantService;
@@ -163,6 +177,24 @@ class MutantServiceTest {
             "Debería lanzar excepción si no es cuadrada");
     }
 
+    @Test
+    void testAnalyze_WithInvalidDna_ShouldReturnErrorWithoutQueryingRepository() {
+        String[] dna = {
+            "ATGCGA",
+            "CAGTGC",
+            "TTATXT",  // X es inválido
+            "AGAAGG",
+            "CCCCTA",
+            "TCACTG"
+        };
+
+        DnaResult result = assertDoesNotThrow(() -> mutantService.analyze(dna));
+
+        assertNull(result.getMutant());
+        assertEquals(PreparedDna.INVALID_DNA, result.getError());
+        verifyNoInteractions(verdictStore);
+    }
+
     @Test
     void testAnalyzeDna_WithNewDna_ShouldSaveToDatabase() {
         // Arrange
@@ -175,15 +207,15 @@ class MutantServiceTest {
             "TCACTG"
         };
 
-        when(dnaRepository.findByDnaHash(anyString())).thenReturn(Optional.empty());
-        when(dnaRepository.save(any(Dna.class))).thenAnswer(i -> i.getArguments()[0]);
+        when(verdictStore.insertIfAbsent(any(Dna.class))).thenReturn(true);
 
         // Act
         boolean result = mutantService.analyzeDna(dna);
 
         // Assert
         assertTrue(result);
-        verify(dnaRepository, times(1)).save(any(Dna.class));
+        verify(verdictStore, times(1)).insertIfAbsent(any(Dna.class));
+        verify(verdictStore, never()).findVerdict(any(DnaHash.class));
     }
 
     @Test
@@ -198,22 +230,113 @@ class MutantServiceTest {
             "TCACTG"
         };
 
-        Dna existingDna = new Dna("hash123", true, "dna");
-        when(dnaRepository.findByDnaHash(anyString())).thenReturn(Optional.of(existingDna));
+        when(verdictStore.insertIfAbsent(any(Dna.class))).thenReturn(false);
+        when(verdictStore.findVerdict(any(DnaHash.class))).thenReturn(true);
 
         // Act
         boolean result = mutantService.analyzeDna(dna);
 
         // Assert
         assertTrue(result);
-        verify(dnaRepository, never()).save(any(Dna.class));
+        verify(verdictStore, times(1)).insertIfAbsent(any(Dna.class));
+        verify(verdictStore, times(1)).findVerdict(any(DnaHash.class));
+    }
+
+    @Test
+    void testAnalyzeDna_WhenInsertedConcurrently_ShouldReturnStoredVerdict() {
+        // Arrange: otro request guardó el mismo hash entre el análisis y el INSERT
+        String[] dna = {
+            "ATGCGA",
+            "CAGTGC",
+            "TTATTT",
+            "AGACGG",
+            "GCGTCA",
+            "TCACTG"
+        };
+
+        when(verdictStore.insertIfAbsent(any(Dna.class))).thenReturn(false);
+        when(verdictStore.findVerdict(any(DnaHash.class))).thenReturn(false);
+
+        // Act & Assert
+        assertFalse(assertDoesNotThrow(() -> mutantService.analyzeDna(dna)));
+    }
+
+    @Test
+    void testAnalyzeDna_WithCachedVerdict_ShouldNotQueryRepository() {
+        // Arrange
+        String[] dna = {
+            "ATGCGA",
+            "CAGTGC",
+            "TTATGT",
+            "AGAAGG",
+            "CCCCTA",
+            "TCACTG"
+        };
+
+        when(verdictStore.insertIfAbsent(any(Dna.class))).thenReturn(true);
+
+        // Act
+        boolean first = mutantService.analyzeDna(dna);
+        boolean second = mutantService.analyzeDna(dna);
+
+        // Assert
+        assertTrue(first);
+        assertTrue(second);
+        verify(verdictStore, times(1)).insertIfAbsent(any(Dna.class));
+        assertEquals(1, verdictCache.getHits());
+    }
+
+    @Test
+    void testAnalyzeDna_WithKnownHashFilter_ShouldSkipLookupForNewAndDetectionForRepeated() {
+        // Arrange: sin caché, para que el segundo request llegue al filtro
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        KnownHashFilter knownHashes = new KnownHashFilter(verdictStore, 1000, 0.01);
+        ReflectionTestUtils.setField(mutantService, "knownHashes", knownHashes);
+        ReflectionTestUtils.setField(mutantService, "verdictCache", null);
+
+        when(verdictStore.insertIfAbsent(any(Dna.class))).thenReturn(true);
+        when(verdictStore.findVerdict(any(DnaHash.class))).thenReturn(true);
+
+        // Act
+        boolean first = mutantService.analyzeDna(dna);
+        boolean second = mutantService.analyzeDna(dna);
+
+        // Assert: el nuevo no se busca; el repetido se busca y no se vuelve a insertar
+        assertTrue(first);
+        assertTrue(second);
+        verify(verdictStore, times(1)).insertIfAbsent(any(Dna.class));
+        verify(verdictStore, times(1)).findVerdict(any(DnaHash.class));
+        assertEquals(0, knownHashes.getObservedFpp());
+    }
+
+    @Test
+    void testAnalyzeBatch_ShouldLookupOnceAndInsertOnce() {
+        // Arrange
+        String[] mutant = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        String[] human = {"ATGCGA", "CAGTGC", "TTATTT", "AGACGG", "GCGTCA", "TCACTG"};
+        String[] invalid = {"ATGCGA", "CAGTGC", "TTATXT", "AGAAGG", "CCCCTA", "TCACTG"};
+
+        when(verdictStore.findVerdicts(anyCollection())).thenReturn(List.of());
+        when(verdictStore.insertAllIfAbsent(anyList())).thenReturn(new int[]{1, 1});
+
+        // Act
+        List<DnaResult> results = mutantService.analyzeBatch(List.of(mutant, human, invalid, mutant));
+
+        // Assert
+        assertEquals(4, results.size());
+        assertTrue(results.get(0).getMutant());
+        assertFalse(results.get(1).getMutant());
+        assertNotNull(results.get(2).getError());
+        assertTrue(results.get(3).getMutant());
+        verify(verdictStore, times(1)).findVerdicts(anyCollection());
+        verify(verdictStore, times(1)).insertAllIfAbsent(argThat(records -> records.size() == 2));
     }
 
     @Test
     void testGetStats_ShouldReturnCorrectStatistics() {
         // Arrange
-        when(dnaRepository.countByIsMutant(true)).thenReturn(40L);
-        when(dnaRepository.countByIsMutant(false)).thenReturn(100L);
+        when(verdictStore.countByIsMutant(true)).thenReturn(40L);
+        when(verdictStore.countByIsMutant(false)).thenReturn(100L);
 
         // Act
         var stats = mutantService.getStats();
@@ -228,8 +351,8 @@ class MutantServiceTest {
     @Test
     void testGetStats_WithNoHumans_ShouldReturnZeroRatio() {
         // Arrange
-        when(dnaRepository.countByIsMutant(true)).thenReturn(10L);
-        when(dnaRepository.countByIsMutant(false)).thenReturn(0L);
+        when(verdictStore.countByIsMutant(true)).thenReturn(10L);
+        when(verdictStore.countByIsMutant(false)).thenReturn(0L);
 
         // Act
         var stats = mutantService.getStats();
@@ -0,0 +1,93 @@
+package mercadolibre.service;
+
+import org.example.mercadolibre.cache.KnownHashFilter;
+import org.example.mercadolibre.detector.MutantDetector;
+import org.example.mercadolibre.detector.RunLengthDetector;
+import org.example.mercadolibre.dna.DnaFingerprinter;
+import org.example.mercadolibre.dto.DnaResult;
+import org.example.mercadolibre.entity.Dna;
+import org.example.mercadolibre.repository.ReactiveDnaStore;
+import org.example.mercadolibre.service.ReactiveMutantService;
+import org.example.mercadolibre.stats.StatsCounters;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveMutantServiceTest {
+
+    private static final String[] MUTANT = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+
+    @Mock
+    private ReactiveDnaStore dnaStore;
+
+    @Mock
+    private KnownHashFilter knownHashes;
+
+    @Mock
+    private StatsCounters statsCounters;
+
+    @InjectMocks
+    private ReactiveMutantService service;
+
+    // Emula el hilo de R2DBC que completa la búsqueda
+    private final Scheduler r2dbc = Schedulers.newSingle("r2dbc-test");
+    private final Scheduler detection = Schedulers.newSingle("mutant-detect-test");
+    private final AtomicReference<String> detectionThread = new AtomicReference<>();
+
+    @BeforeEach
+    void setUp() {
+        MutantDetector detector = new RunLengthDetector();
+        ReflectionTestUtils.setField(service, "mutantDetector", (MutantDetector) dna -> {
+            detectionThread.set(Thread.currentThread().getName());
+            return detector.isMutant(dna);
+        });
+        ReflectionTestUtils.setField(service, "fingerprinter", new DnaFingerprinter());
+        ReflectionTestUtils.setField(service, "detectionScheduler", detection);
+    }
+
+    @AfterEach
+    void tearDown() {
+        r2dbc.dispose();
+        detection.dispose();
+    }
+
+    @Test
+    void testAnalyze_FilterFalsePositive_ShouldDetectOnDetectionScheduler() {
+        when(knownHashes.mightContain(any())).thenReturn(true);
+        when(dnaStore.findVerdict(any())).thenReturn(Mono.<Boolean>empty().publishOn(r2dbc));
+        when(dnaStore.insertIfAbsent(any(Dna.class))).thenReturn(Mono.just(true));
+
+        DnaResult result = service.analyze(MUTANT).block(Duration.ofSeconds(5));
+
+        assertEquals(Boolean.TRUE, result.getMutant());
+        assertTrue(detectionThread.get().startsWith("mutant-detect-test"), detectionThread.get());
+        verify(knownHashes).recordFalsePositives(1);
+        verify(statsCounters).recordInsert(true);
+    }
+
+    @Test
+    void testAnalyze_NewDna_ShouldDetectOnDetectionScheduler() {
+        when(dnaStore.insertIfAbsent(any(Dna.class))).thenReturn(Mono.just(true));
+
+        DnaResult result = service.analyze(MUTANT).block(Duration.ofSeconds(5));
+
+        assertEquals(Boolean.TRUE, result.getMutant());
+        assertTrue(detectionThread.get().startsWith("mutant-detect-test"), detectionThread.get());
+    }
+}
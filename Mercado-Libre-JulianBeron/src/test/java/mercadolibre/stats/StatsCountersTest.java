@@ -0,0 +1,53 @@
+package mercadolibre.stats;
+
+import org.example.mercadolibre.repository.VerdictStore;
+import org.example.mercadolibre.stats.StatsCounters;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StatsCountersTest {
+
+    @Mock
+    private VerdictStore verdictStore;
+
+    @Test
+    void testResync_ShouldSeedFromRepository() {
+        when(verdictStore.countByIsMutant(true)).thenReturn(40L);
+        when(verdictStore.countByIsMutant(false)).thenReturn(100L);
+
+        StatsCounters counters = new StatsCounters(verdictStore);
+        counters.resync();
+
+        assertEquals(40L, counters.getMutantCount());
+        assertEquals(100L, counters.getHumanCount());
+    }
+
+    @Test
+    void testRecordInsert_ShouldNotQueryRepositoryAgain() throws InterruptedException {
+        StatsCounters counters = new StatsCounters(verdictStore);
+        counters.resync();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1000; i++) {
+            boolean isMutant = i % 4 == 0;
+            executor.execute(() -> counters.recordInsert(isMutant));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(250L, counters.getMutantCount());
+        assertEquals(750L, counters.getHumanCount());
+        verify(verdictStore, times(1)).countByIsMutant(true);
+        verify(verdictStore, times(1)).countByIsMutant(false);
+    }
+}
@@ -0,0 +1,259 @@
+package mercadolibre.stats;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.mercadolibre.dna.DnaFingerprinter;
+import org.example.mercadolibre.dna.DnaHash;
+import org.example.mercadolibre.dto.StatsRangeResponse;
+import org.example.mercadolibre.entity.Dna;
+import org.example.mercadolibre.repository.OffHeapVerdictStore;
+import org.example.mercadolibre.repository.VerdictLog;
+import org.example.mercadolibre.stats.Granularity;
+import org.example.mercadolibre.stats.StatsRollups;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatsRollupsTest {
+
+    // La misma tabla que crea JPA a partir de StatsRollup
+    private static final String CREATE_TABLE =
+            "CREATE TABLE stats_rollups (bucket_seconds INT NOT NULL, bucket_start BIGINT NOT NULL, " +
+            "mutant_count BIGINT NOT NULL, human_count BIGINT NOT NULL, size_histogram VARBINARY, " +
+            "PRIMARY KEY (bucket_seconds, bucket_start))";
+
+    private JdbcTemplate jdbcTemplate;
+    private StatsRollups rollups;
+    // Inicio de una hora de ayer: los minutos ya están cerrados
+    private Instant hour;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:rollups;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS stats_rollups");
+        jdbcTemplate.execute(CREATE_TABLE);
+        rollups = new StatsRollups(jdbcTemplate, new DataSourceTransactionManager(dataSource),
+                Duration.ZERO, Duration.ofDays(7), 1000);
+        hour = Instant.now().minus(Duration.ofDays(1)).truncatedTo(ChronoUnit.HOURS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        rollups.close();
+    }
+
+    @Test
+    void testQuery_ShouldAggregateByMinuteAndHour() {
+        rollups.recordInsert(record(true, 6, hour.plusSeconds(10)));
+        rollups.recordInsert(record(false, 6, hour.plusSeconds(50)));
+        rollups.recordInsert(record(false, 100, hour.plusSeconds(61)));
+        rollups.recordInsert(record(true, 4, hour.plusSeconds(3600)));
+
+        StatsRangeResponse minutes = rollups.query(hour, hour.plusSeconds(3600), Granularity.MINUTE);
+        assertEquals(2, minutes.getBuckets().size());
+        assertEquals(hour, minutes.getBuckets().get(0).getStart());
+        assertEquals(1, minutes.getBuckets().get(0).getCountMutantDna());
+        assertEquals(1, minutes.getBuckets().get(0).getCountHumanDna());
+        assertEquals(Map.of("4-7", 2L), minutes.getBuckets().get(0).getSizeHistogram());
+        assertEquals(hour.plusSeconds(60), minutes.getBuckets().get(1).getStart());
+        assertEquals(1, minutes.getCountMutantDna());
+        assertEquals(2, minutes.getCountHumanDna());
+        assertEquals(0.5, minutes.getRatio());
+
+        StatsRangeResponse hours = rollups.query(hour, hour.plusSeconds(7200), Granularity.HOUR);
+        assertEquals("hour", hours.getGranularity());
+        assertEquals(2, hours.getBuckets().size());
+        assertEquals(1, hours.getBuckets().get(0).getCountMutantDna());
+        assertEquals(2, hours.getBuckets().get(0).getCountHumanDna());
+        assertEquals(Map.of("4-7", 2L, "64-127", 1L), hours.getBuckets().get(0).getSizeHistogram());
+        assertEquals(2, hours.getCountMutantDna());
+        assertEquals(Map.of("4-7", 3L, "64-127", 1L), hours.getSizeHistogram());
+    }
+
+    @Test
+    void testFlush_ShouldAddToExistingRowsAndSubtractReverts() {
+        Dna first = record(true, 6, hour.plusSeconds(5));
+        rollups.recordInsert(first);
+        rollups.flush();
+        rollups.recordInsert(record(false, 6, hour.plusSeconds(30)));
+        rollups.recordInsert(record(false, 8, hour.plusSeconds(40)));
+        rollups.flush();
+        rollups.revertInsert(first);
+
+        StatsRangeResponse minute = rollups.query(hour, hour.plusSeconds(60), Granularity.MINUTE);
+        assertEquals(0, minute.getCountMutantDna());
+        assertEquals(2, minute.getCountHumanDna());
+        assertEquals(Map.of("4-7", 1L, "8-15", 1L), minute.getSizeHistogram());
+        assertEquals(2, rowCount());
+    }
+
+    @Test
+    void testFlush_ShouldDropMinuteRowsAfterRetentionAndKeepHours() {
+        Instant old = hour.minus(Duration.ofDays(10));
+        rollups.recordInsert(record(true, 6, old));
+
+        assertTrue(rollups.query(old, old.plusSeconds(60), Granularity.MINUTE).getBuckets().isEmpty());
+        assertEquals(1, rollups.query(old, old.plusSeconds(3600), Granularity.HOUR).getCountMutantDna());
+    }
+
+    @Test
+    void testQuery_ShouldAddPendingCountsWithoutFlushing() {
+        rollups.recordInsert(record(true, 6, hour.plusSeconds(5)));
+        rollups.flush();
+        rollups.recordInsert(record(false, 6, hour.plusSeconds(20)));
+        rollups.recordInsert(record(true, 16, hour.plusSeconds(600)));
+
+        StatsRangeResponse minutes = rollups.query(hour, hour.plusSeconds(3600), Granularity.MINUTE);
+        assertEquals(2, minutes.getBuckets().size());
+        assertEquals(1, minutes.getBuckets().get(0).getCountMutantDna());
+        assertEquals(1, minutes.getBuckets().get(0).getCountHumanDna());
+        assertEquals(hour.plusSeconds(600), minutes.getBuckets().get(1).getStart());
+        assertEquals(Map.of("4-7", 2L, "16-31", 1L), minutes.getSizeHistogram());
+        assertEquals(2, rollups.query(hour, hour.plusSeconds(3600), Granularity.HOUR).getCountMutantDna());
+
+        // La consulta solo lee: la tabla tiene lo del primer flush
+        assertEquals(2, rowCount());
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT SUM(mutant_count + human_count) FROM stats_rollups WHERE bucket_seconds = 60", Long.class));
+    }
+
+    @Test
+    void testRebuild_FromVerdictLog_ShouldRestoreRollupsAfterRestart(@TempDir Path dir) {
+        DnaFingerprinter fingerprinter = new DnaFingerprinter();
+        OffHeapVerdictStore store = durableStore(fingerprinter, dir);
+        store.insertIfAbsent(record(fingerprinter, "ATGCGA", true, hour.plusSeconds(10)));
+        store.insertIfAbsent(record(fingerprinter, "CAGTGC", false, hour.plusSeconds(70)));
+        store.insertIfAbsent(record(fingerprinter, "TTATGT", false, hour.plusSeconds(3700)));
+        closeLog(store);
+
+        OffHeapVerdictStore restarted = durableStore(fingerprinter, dir);
+        StatsRangeResponse hours = rollups.query(hour, hour.plusSeconds(7200), Granularity.HOUR);
+        assertEquals(2, hours.getBuckets().size());
+        assertEquals(1, hours.getBuckets().get(0).getCountMutantDna());
+        assertEquals(1, hours.getBuckets().get(0).getCountHumanDna());
+        assertEquals(Map.of("4-7", 3L), hours.getSizeHistogram());
+        closeLog(restarted);
+
+        // Con filas en la tabla no se reconstruye (se contaría dos veces)
+        rollups.flush();
+        closeLog(durableStore(fingerprinter, dir));
+        StatsRangeResponse again = rollups.query(hour, hour.plusSeconds(7200), Granularity.HOUR);
+        assertEquals(1, again.getCountMutantDna());
+        assertEquals(2, again.getCountHumanDna());
+    }
+
+    @Test
+    void testScheduledFlush_TransactionFailure_ShouldKeepCountsAndRetry() throws InterruptedException {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:rollups;DB_CLOSE_DELAY=-1", "sa", "");
+        DataSourceTransactionManager delegate = new DataSourceTransactionManager(dataSource);
+        AtomicBoolean down = new AtomicBoolean(true);
+        PlatformTransactionManager flaky = new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                if (down.get()) {
+                    throw new CannotCreateTransactionException("sin conexión");
+                }
+                return delegate.getTransaction(definition);
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+                delegate.commit(status);
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+                delegate.rollback(status);
+            }
+        };
+        StatsRollups scheduled = new StatsRollups(jdbcTemplate, flaky, Duration.ofMillis(10), Duration.ofDays(7), 1000);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        scheduled.bindTo(registry);
+        scheduled.recordInsert(record(true, 6, hour.plusSeconds(5)));
+        scheduled.start();
+        try {
+            await(() -> registry.get("mutant.stats.rollups.flush-failures").functionCounter().count() >= 2);
+            assertEquals(0, rowCount());
+            assertEquals(1, scheduled.query(hour, hour.plusSeconds(60), Granularity.MINUTE).getCountMutantDna());
+
+            down.set(false);
+            await(() -> rowCount() == 2);
+            assertEquals(1, scheduled.query(hour, hour.plusSeconds(60), Granularity.MINUTE).getCountMutantDna());
+        } finally {
+            scheduled.close();
+        }
+    }
+
+    @Test
+    void testQuery_InvalidRange_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> rollups.query(hour, hour, Granularity.HOUR));
+        assertThrows(IllegalArgumentException.class,
+                () -> rollups.query(hour, hour.plus(Duration.ofDays(1)), Granularity.MINUTE));
+        assertThrows(IllegalArgumentException.class, () -> rollups.query(null, null, "day"));
+        assertThrows(IllegalArgumentException.class, () -> rollups.query("ayer", null, null));
+
+        StatsRangeResponse defaults = rollups.query(null, hour.toString(), null);
+        assertEquals("hour", defaults.getGranularity());
+        assertEquals(hour.minus(Duration.ofDays(1)), defaults.getFrom());
+    }
+
+    private OffHeapVerdictStore durableStore(DnaFingerprinter fingerprinter, Path dir) {
+        OffHeapVerdictStore store = new OffHeapVerdictStore(fingerprinter, 16, 0.7);
+        ReflectionTestUtils.setField(store, "verdictLog",
+                new VerdictLog(dir, fingerprinter.getHashLength(), 100, Duration.ZERO, 0.2));
+        ReflectionTestUtils.setField(store, "statsRollups", rollups);
+        store.recover();
+        return store;
+    }
+
+    private static void closeLog(OffHeapVerdictStore store) {
+        ((VerdictLog) ReflectionTestUtils.getField(store, "verdictLog")).close();
+    }
+
+    private static Dna record(DnaFingerprinter fingerprinter, String row, boolean mutant, Instant createdAt) {
+        String[] dna = {row, row, row, row, row, row};
+        Dna record = new Dna(fingerprinter.fingerprint(dna), mutant, dna.length, new byte[0]);
+        record.setCreatedAt(LocalDateTime.ofInstant(createdAt, ZoneId.systemDefault()));
+        return record;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timeout");
+            Thread.sleep(5);
+        }
+    }
+
+    private int rowCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM stats_rollups", Integer.class);
+    }
+
+    private static Dna record(boolean mutant, int size, Instant createdAt) {
+        Dna dna = new Dna(new DnaHash(new byte[32]), mutant, size, new byte[0]);
+        dna.setCreatedAt(LocalDateTime.ofInstant(createdAt, ZoneId.systemDefault()));
+        return dna;
+    }
+}
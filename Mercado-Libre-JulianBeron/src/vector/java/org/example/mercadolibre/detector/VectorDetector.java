@@ -0,0 +1,94 @@
+package org.example.mercadolibre.detector;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+import org.example.mercadolibre.dna.DnaMatrix;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Kernel SIMD (jdk.incubator.vector): compara carril a carril bloques de celdas
+// desplazados para resolver varias ventanas de 4 por instrucción en las 4 direcciones.
+// Se compila en el source set "vector" y se carga con VectorKernels solo si el
+// módulo está habilitado en la JVM
+public class VectorDetector implements BandDetector {
+
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+
+    // Para matrices más angostas que un vector el recorrido escalar es más rápido
+    private final RunLengthDetector scalar = new RunLengthDetector();
+
+    @Override
+    public boolean isMutant(DnaMatrix dna) {
+        int n = dna.getSize();
+        if (n < SPECIES.length()) {
+            return scalar.isMutant(dna);
+        }
+        return scan(dna.getCells(), n, 0, n, null) > 1;
+    }
+
+    @Override
+    public int countOwnedWindows(DnaMatrix dna, int fromRow, int toRow, AtomicInteger found) {
+        int n = dna.getSize();
+        if (n < SPECIES.length()) {
+            return scalar.countOwnedWindows(dna, fromRow, toRow, found);
+        }
+        return scan(dna.getCells(), n, fromRow, toRow, found);
+    }
+
+    // Ventanas cuya fila superior está en [fromRow, toRow). Con shared null cuenta en
+    // local; si no, suma en shared fila por fila. Corta apenas el total pasa de 1
+    private static int scan(byte[] cells, int n, int fromRow, int toRow, AtomicInteger shared) {
+        int total = shared == null ? 0 : shared.get();
+
+        for (int r = fromRow; r < toRow && total <= 1; r++) {
+            int row = r * n;
+
+            // Horizontales de la fila r
+            int found = countRuns(cells, n - 3, row, row + 1, row + 2, row + 3);
+
+            if (r <= n - 4) {
+                // Ventanas que comienzan en la fila r
+                found += countRuns(cells, n, row, row + n, row + 2 * n, row + 3 * n);
+                found += countRuns(cells, n - 3, row, row + n + 1, row + 2 * n + 2, row + 3 * n + 3);
+                // ↗ con base en la fila r + 3
+                found += countRuns(cells, n - 3, row + 3 * n, row + 2 * n + 1, row + n + 2, row + 3);
+            }
+
+            if (shared == null) {
+                total += found;
+            } else {
+                total = found > 0 ? shared.addAndGet(found) : shared.get();
+            }
+        }
+
+        return total;
+    }
+
+    // Cuenta las columnas j < limit donde las 4 celdas o0+j .. o3+j son iguales
+    private static int countRuns(byte[] cells, int limit, int o0, int o1, int o2, int o3) {
+        int count = 0;
+        int step = SPECIES.length();
+        int j = 0;
+
+        for (int bound = SPECIES.loopBound(limit); j < bound; j += step) {
+            ByteVector first = ByteVector.fromArray(SPECIES, cells, o0 + j);
+            VectorMask<Byte> run = first.eq(ByteVector.fromArray(SPECIES, cells, o1 + j))
+                    .and(first.eq(ByteVector.fromArray(SPECIES, cells, o2 + j)))
+                    .and(first.eq(ByteVector.fromArray(SPECIES, cells, o3 + j)));
+            count += run.trueCount();
+        }
+
+        if (j < limit) {
+            VectorMask<Byte> tail = SPECIES.indexInRange(j, limit);
+            ByteVector first = ByteVector.fromArray(SPECIES, cells, o0 + j, tail);
+            VectorMask<Byte> run = first.eq(ByteVector.fromArray(SPECIES, cells, o1 + j, tail))
+                    .and(first.eq(ByteVector.fromArray(SPECIES, cells, o2 + j, tail)))
+                    .and(first.eq(ByteVector.fromArray(SPECIES, cells, o3 + j, tail)))
+                    .and(tail);
+            count += run.trueCount();
+        }
+
+        return count;
+    }
+}